@@ -0,0 +1,375 @@
+package com.financeapp.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financeapp.model.Goal;
+import com.financeapp.model.Transaction;
+import com.financeapp.repository.BudgetRepository;
+import com.financeapp.repository.GoalRepository;
+import com.financeapp.repository.NotificationRepository;
+import com.financeapp.repository.TransactionDailyRollupRepository;
+import com.financeapp.repository.TransactionRepository;
+import com.financeapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * One-shot command that runs every repository query and fails if the plan
+ * MySQL chooses for it reads a table in full or sorts with a filesort.
+ *
+ * Usage (against a MySQL 8 database holding realistic data, after
+ * migrations have run; useCursorFetch must be off, see below):
+ * java -jar finance-tracker.jar --check-query-plans \
+ *     --spring.datasource.url=jdbc:mysql://localhost:3306/finance?useSSL=false&allowPublicKeyRetrieval=true
+ *
+ * Each query is run through its repository method, for the user with the
+ * highest id that has transactions, inside a transaction that is rolled
+ * back, so what is checked is exactly the SQL Hibernate generates, UPDATE
+ * and DELETE statements included, and nothing is changed. The statements
+ * the call issued are read back from
+ * performance_schema.events_statements_history and each one is run through
+ * EXPLAIN FORMAT=JSON. A plan fails if it has "using_filesort" or reads a
+ * table with access type ALL (full table scan) or index (full index scan).
+ *
+ * The plans depend on the data: on near-empty tables the optimizer often
+ * prefers a full scan to an index, so run it against a copy of production
+ * sized data, not a fresh database; those scans show up as failures.
+ * The statement text is only EXPLAINable if the values were sent inline,
+ * which is why useCursorFetch (it turns on server-side prepared statements)
+ * has to be off. Statements longer than performance_schema_max_sql_text_length
+ * (1024 by default) are cut off and fail the run.
+ *
+ * A repository method without an entry in checks() fails the run, so new
+ * queries can't go unchecked. The application exits once the check is done;
+ * a failed check fails the startup.
+ */
+@Component
+public class QueryPlanCheckRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanCheckRunner.class);
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            TransactionRepository.class, TransactionDailyRollupRepository.class, NotificationRepository.class,
+            BudgetRepository.class, GoalRepository.class, UserRepository.class);
+
+    // Findings that are expected, with the reason
+    private static final Map<String, String> EXPECTED_FINDINGS = Map.of(
+            "NotificationRepository.deleteAllButNewest",
+            "reads its own materialized ROW_NUMBER() result in full and sorts the range's notifications for the window",
+            "NotificationRepository.deleteAllButNewestOf",
+            "reads its own materialized ROW_NUMBER() result in full and sorts the users' notifications for the window");
+
+    // Below this many transactions the plans say little about production
+    private static final long REPRESENTATIVE_ROWS = 10_000;
+
+    private static final String THREAD_ID =
+            "(SELECT THREAD_ID FROM performance_schema.threads WHERE PROCESSLIST_ID = CONNECTION_ID())";
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 6, 1, 10, 0);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private Map<String, Runnable> checks(Integer userId) {
+        Map<String, Runnable> checks = new LinkedHashMap<>();
+        Transaction.TransactionType expense = Transaction.TransactionType.expense;
+
+        // TransactionRepository
+        checks.put("TransactionRepository.findByUserIdOrderByTransactionDateDescCreatedAtDesc",
+                () -> transactionRepository.findByUserIdOrderByTransactionDateDescCreatedAtDesc(userId, PageRequest.of(0, 10)));
+        checks.put("TransactionRepository.findByUserId",
+                () -> transactionRepository.findByUserId(userId));
+        checks.put("TransactionRepository.streamForExport", () -> {
+            try (Stream<Transaction> rows = transactionRepository.streamForExport(userId, FROM, TO, expense)) {
+                rows.findFirst();
+            }
+        });
+        checks.put("TransactionRepository.findTransactionsWithFilters",
+                () -> transactionRepository.findTransactionsWithFilters(userId, FROM, TO, expense, PageRequest.of(2, 10)));
+        checks.put("TransactionRepository.findTransactionsAfterCursor",
+                () -> transactionRepository.findTransactionsAfterCursor(userId, FROM, TO, null,
+                        LocalDate.of(2025, 6, 1), AT, 100, PageRequest.of(0, 11)));
+        checks.put("TransactionRepository.countTransactionsWithFilters",
+                () -> transactionRepository.countTransactionsWithFilters(userId, FROM, TO, null));
+        checks.put("TransactionRepository.findAmountRowsByUserId",
+                () -> transactionRepository.findAmountRowsByUserId(userId));
+
+        // TransactionDailyRollupRepository
+        checks.put("TransactionDailyRollupRepository.findByUserIdAndDayBetween",
+                () -> rollupRepository.findByUserIdAndDayBetween(userId, FROM, TO));
+        checks.put("TransactionDailyRollupRepository.aggregateByTypeAndCategory",
+                () -> rollupRepository.aggregateByTypeAndCategory(userId, FROM, TO, null));
+        checks.put("TransactionDailyRollupRepository.findForRange",
+                () -> rollupRepository.findForRange(userId, FROM, TO, expense));
+        checks.put("TransactionDailyRollupRepository.applyDelta",
+                () -> rollupRepository.applyDelta(userId, FROM, "expense", "Food", new BigDecimal("10.00"), 1));
+        checks.put("TransactionDailyRollupRepository.deleteIfEmpty",
+                () -> rollupRepository.deleteIfEmpty(userId, FROM, "expense", "Food"));
+        checks.put("TransactionDailyRollupRepository.deleteForUserRange",
+                () -> rollupRepository.deleteForUserRange(userId, userId));
+        checks.put("TransactionDailyRollupRepository.rebuildForUserRange",
+                () -> rollupRepository.rebuildForUserRange(userId, userId));
+
+        // NotificationRepository
+        checks.put("NotificationRepository.findTop6ByUserIdOrderByCreatedAtDesc",
+                () -> notificationRepository.findTop6ByUserIdOrderByCreatedAtDesc(userId));
+        checks.put("NotificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc",
+                () -> notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId));
+        checks.put("NotificationRepository.countByUserIdAndIsReadFalse",
+                () -> notificationRepository.countByUserIdAndIsReadFalse(userId));
+        checks.put("NotificationRepository.findTop50ByUserIdAndIdGreaterThanOrderByIdAsc",
+                () -> notificationRepository.findTop50ByUserIdAndIdGreaterThanOrderByIdAsc(userId, 100));
+        checks.put("NotificationRepository.countByUserId",
+                () -> notificationRepository.countByUserId(userId));
+        checks.put("NotificationRepository.findRecentMessageHashes",
+                () -> notificationRepository.findRecentMessageHashes(userId,
+                        List.of("0".repeat(64), "f".repeat(64)), AT));
+        checks.put("NotificationRepository.markAllAsRead",
+                () -> notificationRepository.markAllAsRead(userId, AT));
+        checks.put("NotificationRepository.markAsRead",
+                () -> notificationRepository.markAsRead(userId, List.of(1, 2, 3), AT));
+        checks.put("NotificationRepository.findUserIdsAfter",
+                () -> notificationRepository.findUserIdsAfter(0, 500));
+        checks.put("NotificationRepository.deleteAllButNewest",
+                () -> notificationRepository.deleteAllButNewest(userId, userId, 5));
+        checks.put("NotificationRepository.deleteAllButNewestOf",
+                () -> notificationRepository.deleteAllButNewestOf(List.of(userId), 5));
+
+        // BudgetRepository
+        checks.put("BudgetRepository.findByUserIdOrderByCategoryAsc",
+                () -> budgetRepository.findByUserIdOrderByCategoryAsc(userId));
+        checks.put("BudgetRepository.findByUserIdAndCategory",
+                () -> budgetRepository.findByUserIdAndCategory(userId, "Food"));
+
+        // GoalRepository
+        checks.put("GoalRepository.findByUserIdOrderByCreatedAtDesc",
+                () -> goalRepository.findByUserIdOrderByCreatedAtDesc(userId));
+        checks.put("GoalRepository.findByUserIdAndStatus",
+                () -> goalRepository.findByUserIdAndStatus(userId, Goal.GoalStatus.active));
+
+        // UserRepository
+        checks.put("UserRepository.findByEmail",
+                () -> userRepository.findByEmail("someone@example.com"));
+        checks.put("UserRepository.existsByEmail",
+                () -> userRepository.existsByEmail("someone@example.com"));
+        checks.put("UserRepository.findMaxId",
+                () -> userRepository.findMaxId());
+        checks.put("UserRepository.findIdsAfter",
+                () -> userRepository.findIdsAfter(1000, 1000));
+        checks.put("UserRepository.lockIdsBetween",
+                () -> userRepository.lockIdsBetween(userId, userId));
+        checks.put("UserRepository.findDataVersion",
+                () -> userRepository.findDataVersion(userId));
+        checks.put("UserRepository.incrementDataVersion",
+                () -> userRepository.incrementDataVersion(userId));
+        return checks;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("check-query-plans")) {
+            return;
+        }
+
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+        if (url != null && url.toLowerCase(Locale.ROOT).contains("usecursorfetch=true")) {
+            throw new RuntimeException("Run --check-query-plans with a spring.datasource.url without useCursorFetch=true: "
+                    + "server-side prepared statements are recorded without their values and can't be EXPLAINed");
+        }
+
+        Long transactions = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(TABLE_ROWS), 0) FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions'", Long.class);
+        if (transactions < REPRESENTATIVE_ROWS) {
+            log.warn("transactions holds about {} rows; plans of near-empty tables are not representative", transactions);
+        }
+        List<Integer> lastUser = jdbcTemplate.queryForList(
+                "SELECT user_id FROM transactions ORDER BY user_id DESC LIMIT 1", Integer.class);
+        Integer userId = lastUser.isEmpty() ? 1 : lastUser.get(0);
+
+        Map<String, Runnable> checks = checks(userId);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        int failures = 0;
+
+        for (Map.Entry<String, Runnable> check : checks.entrySet()) {
+            // Same transaction, so the JdbcTemplate queries run on the repository's connection
+            String failure = template.execute(status -> {
+                status.setRollbackOnly();
+                return runCheck(check.getKey(), check.getValue());
+            });
+            if (failure != null) {
+                log.warn("FAIL {} {}", check.getKey(), failure);
+                failures++;
+            }
+        }
+
+        // Every query method declared on a repository must have a check
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (!Modifier.isStatic(method.getModifiers()) && !method.isDefault() && !checks.containsKey(name)) {
+                    log.warn("FAIL {} has no check in QueryPlanCheckRunner", name);
+                    failures++;
+                }
+            }
+        }
+
+        if (failures > 0) {
+            throw new RuntimeException(failures + " repository queries are not index-backed or not checked");
+        }
+        log.info("All {} repository queries use an index and no filesort", checks.size());
+        SpringApplication.exit(applicationContext);
+    }
+
+    /**
+     * Runs the call and EXPLAINs the statements it issued.
+     * Returns why the check failed, or null if it passed.
+     */
+    private String runCheck(String name, Runnable call) {
+        // Plain statements (no parameters), so their own SQL text is recorded and can be skipped
+        Long lastEventId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(EVENT_ID), 0) "
+                + "FROM performance_schema.events_statements_history WHERE THREAD_ID = " + THREAD_ID, Long.class);
+        try {
+            call.run();
+        } catch (Exception e) {
+            return "threw " + e.getMessage();
+        }
+        List<String> statements = jdbcTemplate.queryForList("SELECT SQL_TEXT "
+                + "FROM performance_schema.events_statements_history WHERE THREAD_ID = " + THREAD_ID
+                + " AND EVENT_ID > " + lastEventId + " ORDER BY EVENT_ID", String.class);
+
+        List<String> findings = new ArrayList<>();
+        int checked = 0;
+        for (String sql : statements) {
+            if (sql == null || sql.contains("performance_schema") || !isExplainable(sql)) {
+                continue;
+            }
+            checked++;
+            String plan;
+            try {
+                plan = jdbcTemplate.queryForObject("EXPLAIN FORMAT=JSON " + sql, String.class);
+            } catch (Exception e) {
+                return "could not EXPLAIN " + abbreviate(sql) + " (statement cut off at "
+                        + "performance_schema_max_sql_text_length?): " + e.getMessage();
+            }
+            try {
+                List<String> planFindings = new ArrayList<>();
+                collectFindings(objectMapper.readTree(plan), planFindings);
+                if (!planFindings.isEmpty()) {
+                    findings.add(planFindings + " in " + abbreviate(sql));
+                }
+            } catch (Exception e) {
+                return "could not read the plan of " + abbreviate(sql) + ": " + e.getMessage();
+            }
+        }
+
+        if (checked == 0) {
+            return "no statement recorded (is performance_schema enabled?)";
+        }
+        if (findings.isEmpty()) {
+            log.info("OK   {}", name);
+            return null;
+        }
+        if (EXPECTED_FINDINGS.containsKey(name)) {
+            log.info("OK   {} (expected: {})", name, EXPECTED_FINDINGS.get(name));
+            return null;
+        }
+        return String.join("; ", findings);
+    }
+
+    /**
+     * Walks an EXPLAIN FORMAT=JSON plan and adds a finding for every
+     * filesort and every table read in full.
+     */
+    private static void collectFindings(JsonNode node, List<String> findings) {
+        if (node.isArray()) {
+            for (JsonNode element : node) {
+                collectFindings(element, findings);
+            }
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        if (node.path("using_filesort").asBoolean(false)) {
+            findings.add("filesort");
+        }
+        JsonNode table = node.get("table");
+        // The target of an INSERT and a materialized derived table are not read from an index
+        if (table != null && table.isObject() && !table.path("insert").asBoolean(false)
+                && !table.has("materialized_from_subquery")) {
+            String accessType = table.path("access_type").asText("");
+            if (accessType.equals("ALL")) {
+                findings.add("full scan of " + table.path("table_name").asText());
+            } else if (accessType.equals("index")) {
+                findings.add("full index scan of " + table.path("table_name").asText());
+            }
+        }
+        for (Iterator<JsonNode> children = node.elements(); children.hasNext(); ) {
+            collectFindings(children.next(), findings);
+        }
+    }
+
+    // Only queries and data changes have a plan; SET, COMMIT and the like are skipped
+    private static boolean isExplainable(String sql) {
+        String start = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return start.startsWith("select") || start.startsWith("insert") || start.startsWith("update")
+                || start.startsWith("delete") || start.startsWith("with");
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() > 160 ? sql.substring(0, 160) + "..." : sql;
+    }
+}
@@ -0,0 +1,44 @@
+package com.financeapp.config;
+
+import com.financeapp.service.TransactionRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-shot command that repopulates transaction_daily_rollup from the
+ * transactions table and then closes the application context, so the
+ * process ends once the remaining threads have stopped. A failed rebuild
+ * fails the startup.
+ *
+ * Usage: java -jar finance-tracker.jar --rebuild-rollup
+ */
+@Component
+public class RollupRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupRebuildRunner.class);
+
+    @Autowired
+    private TransactionRollupService rollupService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("rebuild-rollup")) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long rows = rollupService.rebuildAll();
+        log.info("Rebuilt transaction_daily_rollup: {} rows in {} ms", rows, System.currentTimeMillis() - start);
+
+        SpringApplication.exit(applicationContext);
+    }
+}
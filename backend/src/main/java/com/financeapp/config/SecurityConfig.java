@@ -1,6 +1,7 @@
 package com.financeapp.config;
 
 import com.financeapp.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -71,6 +72,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // PUBLIC endpoints - anyone can access (no token required)
                         .requestMatchers("/api/user/register", "/api/user/login", "/").permitAll()
+                        // Async dispatches (e.g. the end of a streamed file download) belong to a
+                        // request that was already authenticated when it started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // ALL OTHER endpoints require authentication (valid JWT token)
                         .anyRequest().authenticated())
 
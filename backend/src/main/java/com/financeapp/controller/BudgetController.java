@@ -1,5 +1,6 @@
 package com.financeapp.controller;
 
+import com.financeapp.dto.BudgetResponse;
 import com.financeapp.model.Budget;
 import com.financeapp.service.BudgetService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,16 +21,15 @@ public class BudgetController {
     private BudgetService budgetService;
     
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getBudgets(Authentication authentication) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<Object> getBudgets(Authentication authentication) {
         try {
             Integer userId = (Integer) authentication.getPrincipal();
             List<Budget> budgets = budgetService.getBudgets(userId);
             
-            response.put("success", true);
-            response.put("budgets", budgets.stream().map(this::convertToMap).toList());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new BudgetResponse.ListResponse(
+                true, budgets.stream().map(BudgetResponse::from).toList()));
         } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", e.getMessage());
             return ResponseEntity.ok(response);
@@ -90,16 +90,5 @@ public class BudgetController {
             return ResponseEntity.status(e.getMessage().contains("not found") ? 404 : 400).body(response);
         }
     }
-    
-    private Map<String, Object> convertToMap(Budget budget) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", budget.getId());
-        map.put("user_id", budget.getUserId());
-        map.put("category", budget.getCategory());
-        map.put("amount", budget.getAmount());
-        map.put("created_at", budget.getCreatedAt());
-        map.put("updated_at", budget.getUpdatedAt());
-        return map;
-    }
 }
 
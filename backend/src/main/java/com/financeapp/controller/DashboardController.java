@@ -0,0 +1,40 @@
+package com.financeapp.controller;
+
+import com.financeapp.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ Endpoints:
+ - GET /api/user/dashboard - Everything the Home page needs in one response
+ */
+@RestController
+@RequestMapping("/api/user/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getDashboard(
+            Authentication authentication,
+            @RequestParam(required = false, defaultValue = "30") String frequency) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Integer userId = (Integer) authentication.getPrincipal();
+            response.put("success", true);
+            response.put("data", dashboardService.getDashboard(userId, frequency));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.ok(response);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.financeapp.controller;
+
+import com.financeapp.dto.ExportFilter;
+import com.financeapp.dto.ExportFormat;
+import com.financeapp.service.ExportJobService;
+import com.financeapp.util.FileResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ Background exports, for files that take too long to build within one request.
+ Endpoints:
+ - POST /api/user/transactions/export/jobs?format=csv|ndjson|pdf - Start an export, returns the job id
+   (takes the same gzip and frequency/type/startDate/endDate parameters as the direct exports)
+ - GET /api/user/transactions/export/jobs/{jobId} - Job status
+ - GET /api/user/transactions/export/jobs/{jobId}/download - The finished file (supports Range requests)
+ */
+@RestController
+@RequestMapping("/api/user/transactions/export/jobs")
+@CrossOrigin(origins = "*")
+public class ExportJobController {
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submit(
+            Authentication authentication,
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            @RequestParam(required = false, defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String frequency,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Integer userId = (Integer) authentication.getPrincipal();
+            ExportFilter filter = ExportFilter.of(frequency, type, startDate, endDate);
+            ExportJobService.ExportJob job = exportJobService.submit(userId, ExportFormat.of(format, gzip), filter);
+            response.put("success", true);
+            response.put("job", job.toMap());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getStatus(
+            Authentication authentication,
+            @PathVariable String jobId) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Integer userId = (Integer) authentication.getPrincipal();
+            response.put("success", true);
+            response.put("job", exportJobService.getJob(userId, jobId).toMap());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+
+    /**
+     * Sends the finished file, or the byte range asked for in a Range header
+     * so that interrupted downloads can resume (see FileResponses).
+     */
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<?> download(
+            Authentication authentication,
+            @PathVariable String jobId,
+            HttpServletRequest request) {
+        try {
+            Integer userId = (Integer) authentication.getPrincipal();
+            ExportJobService.ExportJob job = exportJobService.getJob(userId, jobId);
+            if (job.getStatus() != ExportJobService.Status.completed) {
+                throw new RuntimeException("Export is not ready yet");
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentDispositionFormData("attachment", "transactions." + job.getFormat().getExtension());
+            headers.setContentType(MediaType.parseMediaType(job.getFormat().getContentType()));
+            // Each job's file is written once, so the job id identifies its content
+            headers.setETag("\"" + job.getId() + "\"");
+            headers.setLastModified(job.getFinishedAt().atZone(ZoneId.systemDefault()));
+
+            return FileResponses.serve(job.getFile(), headers, request);
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(Exception e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+
+        String message = e.getMessage() != null ? e.getMessage() : "";
+        if (message.contains("not found") || message.contains("No transactions found")) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        if (message.contains("Too many exports")) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        if (message.contains("not ready")) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+}
@@ -1,5 +1,6 @@
 package com.financeapp.controller;
 
+import com.financeapp.dto.GoalResponse;
 import com.financeapp.model.Goal;
 import com.financeapp.service.GoalService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,16 +21,15 @@ public class GoalController {
     private GoalService goalService;
     
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getGoals(Authentication authentication) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<Object> getGoals(Authentication authentication) {
         try {
             Integer userId = (Integer) authentication.getPrincipal();
             List<Goal> goals = goalService.getGoals(userId);
             
-            response.put("success", true);
-            response.put("goals", goals.stream().map(this::convertToMap).toList());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new GoalResponse.ListResponse(
+                true, goals.stream().map(GoalResponse::from).toList()));
         } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", e.getMessage());
             return ResponseEntity.ok(response);
@@ -90,20 +90,5 @@ public class GoalController {
             return ResponseEntity.status(e.getMessage().contains("not found") ? 404 : 400).body(response);
         }
     }
-    
-    private Map<String, Object> convertToMap(Goal goal) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", goal.getId());
-        map.put("user_id", goal.getUserId());
-        map.put("title", goal.getTitle());
-        map.put("description", goal.getDescription());
-        map.put("target_amount", goal.getTargetAmount());
-        map.put("saved_amount", goal.getSavedAmount());
-        map.put("target_date", goal.getTargetDate() != null ? goal.getTargetDate().toString() : null);
-        map.put("status", goal.getStatus().toString());
-        map.put("created_at", goal.getCreatedAt());
-        map.put("updated_at", goal.getUpdatedAt());
-        return map;
-    }
 }
 
@@ -1,15 +1,23 @@
 package com.financeapp.controller;
 
+import com.financeapp.dto.NotificationResponse;
 import com.financeapp.model.Notification;
+import com.financeapp.security.StreamTicketStore;
 import com.financeapp.service.NotificationService;
+import com.financeapp.service.NotificationStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/user/notifications")
@@ -19,6 +27,12 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+    
+    @Autowired
+    private StreamTicketStore streamTicketStore;
+    
     @PostMapping("/generate")
     public ResponseEntity<Map<String, Object>> generateNotifications(
             Authentication authentication) {
@@ -41,24 +55,70 @@ public class NotificationController {
     }
     
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getNotifications(
+    public ResponseEntity<Object> getNotifications(
             Authentication authentication,
             @RequestParam(required = false) Boolean unreadOnly) {
-        Map<String, Object> response = new HashMap<>();
         try {
             Integer userId = (Integer) authentication.getPrincipal();
             List<Notification> notifications = notificationService.getNotifications(userId, unreadOnly);
             
-            response.put("success", true);
-            response.put("notifications", notifications.stream().map(this::convertToMap).toList());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new NotificationResponse.ListResponse(
+                true, notifications.stream().map(NotificationResponse::from).toList()));
         } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", e.getMessage());
             return ResponseEntity.ok(response);
         }
     }
     
+    /**
+     * Single-use ticket for opening the stream, valid for a few seconds.
+     */
+    @PostMapping("/stream-ticket")
+    public ResponseEntity<Map<String, Object>> streamTicket(Authentication authentication) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("ticket", streamTicketStore.issue(userId));
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        }
+    }
+    
+    /**
+     * Server-Sent Events stream of new notifications ("notification" events,
+     * with the notification id as the event id).
+     * EventSource can't send headers, so it is opened with ?ticket=... from
+     * POST /stream-ticket. A ticket works once, so the client opens a new
+     * stream for each reconnect and passes the last id it saw as ?lastEventId=
+     * (the browser's own reconnect sends it as Last-Event-ID).
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            Authentication authentication,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        Integer afterId = null;
+        if (lastEventId != null && lastEventId.matches("\\d{1,9}")) {
+            afterId = Integer.valueOf(lastEventId);
+        }
+        try {
+            return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(notificationStreamService.connect(userId, afterId));
+        } catch (RuntimeException e) {
+            // EventSource doesn't reconnect after an error status
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     @PutMapping("/{id}/read")
     public ResponseEntity<Map<String, Object>> markAsRead(
             Authentication authentication,
@@ -78,16 +138,52 @@ public class NotificationController {
         }
     }
     
+    /**
+     * Marks several notifications as read at once.
+     * Body: {"ids": [1, 2, 3]}; the response has the number that were unread in "count".
+     */
+    @PutMapping("/read")
+    public ResponseEntity<Map<String, Object>> markManyAsRead(
+            Authentication authentication,
+            @RequestBody Map<String, Object> request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Integer userId = (Integer) authentication.getPrincipal();
+            Object idsObj = request.get("ids");
+            if (!(idsObj instanceof List<?> idList)) {
+                throw new RuntimeException("ids must be a list of notification ids");
+            }
+            Set<Integer> ids = new HashSet<>();
+            for (Object id : idList) {
+                if (id == null) {
+                    throw new RuntimeException("ids must be a list of notification ids");
+                }
+                ids.add(Integer.valueOf(id.toString()));
+            }
+            int count = notificationService.markAsRead(userId, ids);
+            
+            response.put("success", true);
+            response.put("message", count + " notifications marked as read");
+            response.put("count", count);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+    
     @PutMapping("/read-all")
     public ResponseEntity<Map<String, Object>> markAllAsRead(
             Authentication authentication) {
         Map<String, Object> response = new HashMap<>();
         try {
             Integer userId = (Integer) authentication.getPrincipal();
-            notificationService.markAllAsRead(userId);
+            int count = notificationService.markAllAsRead(userId);
             
             response.put("success", true);
             response.put("message", "All notifications marked as read");
+            response.put("count", count);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.put("success", false);
@@ -95,17 +191,5 @@ public class NotificationController {
             return ResponseEntity.ok(response);
         }
     }
-    
-    private Map<String, Object> convertToMap(Notification notification) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", notification.getId());
-        map.put("user_id", notification.getUserId());
-        map.put("message", notification.getMessage());
-        map.put("type", notification.getType().toString());
-        map.put("is_read", notification.getIsRead());
-        map.put("created_at", notification.getCreatedAt());
-        map.put("updated_at", notification.getUpdatedAt());
-        return map;
-    }
 }
 
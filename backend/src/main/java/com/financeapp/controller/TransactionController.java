@@ -1,17 +1,30 @@
 package com.financeapp.controller;
 
+import com.financeapp.dto.ExportFilter;
+import com.financeapp.dto.ExportFormat;
+import com.financeapp.dto.ImportReport;
+import com.financeapp.dto.TransactionListResponse;
+import com.financeapp.service.ExportCache;
 import com.financeapp.service.ExportService;
+import com.financeapp.service.TransactionImportService;
 import com.financeapp.service.TransactionService;
+import com.financeapp.util.FileResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,6 +40,12 @@ public class TransactionController {
     @Autowired
     private ExportService exportService;
 
+    @Autowired
+    private ExportCache exportCache;
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
     @PostMapping
     public ResponseEntity<Map<String, Object>> createTransaction(
             Authentication authentication,
@@ -45,25 +64,71 @@ public class TransactionController {
         }
     }
 
+    /**
+     Import transactions from a CSV, OFX/QFX or QIF file.
+     Endpoint: POST /api/user/transactions/import (multipart, field "file")
+     
+     A CSV file needs a header row with the columns date, type and amount, and
+     may have category, description and reference columns (a file from the CSV
+     export works as it is). OFX and QIF are bank statement formats; money
+     going out becomes an expense, money coming in an income. Rows that can't
+     be imported don't stop the import; they are listed with their line number
+     in the response.
+     @param authentication Contains the logged-in user's information
+     @param file The uploaded file
+     @param format csv, ofx or qif (optional, otherwise taken from the file name)
+     @return Number of imported and failed rows, plus the row errors
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importTransactions(
+            Authentication authentication,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Integer userId = (Integer) authentication.getPrincipal();
+            if (file.isEmpty()) {
+                throw new RuntimeException("Please upload a file");
+            }
+            ImportReport report = transactionImportService.importFile(userId, file, format);
+            response.put("success", true);
+            response.putAll(report.toMap());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getTransactions(
+    public ResponseEntity<Object> getTransactions(
             Authentication authentication,
             @RequestParam(required = false) String frequency,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false, defaultValue = "1") int page,
-            @RequestParam(required = false, defaultValue = "10") int pageSize) {
-        Map<String, Object> response = new HashMap<>();
+            @RequestParam(required = false, defaultValue = "10") int pageSize,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "false") boolean includeTotal) {
         try {
             Integer userId = (Integer) authentication.getPrincipal();
-            Pageable pageable = PageRequest.of(page - 1, pageSize);
-            Map<String, Object> result = transactionService.getTransactions(
-                    userId, frequency, type, startDate, endDate, pageable);
-            response.put("success", true);
-            response.putAll(result);
-            return ResponseEntity.ok(response);
+            TransactionListResponse result;
+            if (cursor != null) {
+                // Cursor mode: an empty cursor asks for the first page
+                result = transactionService.getTransactionsByCursor(
+                        userId, frequency, type, startDate, endDate, cursor, pageSize, includeTotal);
+            } else {
+                // Offset mode keeps its old contract: any page size is served
+                Pageable pageable = PageRequest.of(Math.max(page, 1) - 1, Math.max(pageSize, 1));
+                result = transactionService.getTransactions(
+                        userId, frequency, type, startDate, endDate, pageable);
+            }
+            // Typed response: Jackson writes it straight to the output stream
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", e.getMessage());
             return ResponseEntity.ok(response);
@@ -92,9 +157,35 @@ public class TransactionController {
         }
     }
 
+    @GetMapping("/timeseries")
+    public ResponseEntity<Map<String, Object>> getTimeSeries(
+            Authentication authentication,
+            @RequestParam(required = false, defaultValue = "30") String frequency,
+            @RequestParam(required = false, defaultValue = "all") String type,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false, defaultValue = "day") String interval,
+            @RequestParam(required = false, defaultValue = "false") boolean byCategory) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Integer userId = (Integer) authentication.getPrincipal();
+            Map<String, Object> timeSeries = transactionService.getTimeSeries(
+                    userId, frequency, type, startDate, endDate, interval, byCategory);
+            response.put("success", true);
+            response.put("data", timeSeries);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.ok(response);
+        }
+    }
+
     // ==================== EXPORT ENDPOINTS ====================
     // These endpoints allow users to download their transactions as files.
     // They return file downloads instead of JSON responses.
+    // Both take the same optional filters as the transaction list
+    // (frequency, type, startDate, endDate) and default to the whole history.
 
     /**
      Export transactions as CSV (Comma-Separated Values) file. 
@@ -102,51 +193,45 @@ public class TransactionController {
      
      This endpoint:
      1. Gets the authenticated user's ID from the security context
-     2. Calls the ExportService to generate CSV data
-     3. Returns the CSV as a file download
+     2. Answers 304 Not Modified if the client already has this exact export (ETag)
+     3. Sends a cached copy if this exact export was rendered before
+     4. Otherwise streams the CSV to the client while the rows are read from the database
      @param authentication Contains the logged-in user's information
      @return CSV file download or JSON error response
      */
     @GetMapping("/export/csv")
-    public ResponseEntity<?> exportCsv(Authentication authentication) {
-        try {
-            // Step 1: Get the user ID from the authentication token
-            // The principal contains the user ID that was set during JWT authentication
-            Integer userId = (Integer) authentication.getPrincipal();
-
-            // Step 2: Generate the CSV data using our ExportService
-            // This returns a byte array containing the CSV content
-            byte[] csvData = exportService.generateCsv(userId);
-
-            // Step 3: Set up the HTTP headers for file download
-            // HttpHeaders is a Spring class that helps set response headers
-            HttpHeaders headers = new HttpHeaders();
-
-            // Content-Disposition header tells the browser to download this as a file
-            // "attachment" means download, "filename=..." sets the default filename
-            headers.setContentDispositionFormData("attachment", "transactions.csv");
-
-            // Content-Type tells the browser what type of file this is
-            // "text/csv" is the MIME type for CSV files
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-
-            // Step 4: Return the response with the CSV data
-            // ResponseEntity wraps the response with status code, headers, and body
-            // HttpStatus.OK means 200 success
-            return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
-
-        } catch (Exception e) {
-            // If an error occurs (e.g., no transactions found), return a JSON error
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
+    public ResponseEntity<?> exportCsv(
+            Authentication authentication,
+            @RequestParam(required = false) String frequency,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false, defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        return export(authentication, gzip ? ExportFormat.csv_gz : ExportFormat.csv,
+                ExportFilter.of(frequency, type, startDate, endDate), request);
+    }
 
-            // Return 404 for "no transactions found", 500 for other errors
-            if (e.getMessage().contains("No transactions found")) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            }
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+    /**
+     Export transactions as newline-delimited JSON, one transaction per line.
+     Endpoint: GET /api/user/transactions/export/ndjson
+     
+     Meant for scripts; works like the CSV export. With gzip=true the file is
+     sent gzip-compressed (transactions.ndjson.gz), which also works for CSV.
+     @param authentication Contains the logged-in user's information
+     @return NDJSON file download or JSON error response
+     */
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<?> exportNdjson(
+            Authentication authentication,
+            @RequestParam(required = false) String frequency,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false, defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        return export(authentication, gzip ? ExportFormat.ndjson_gz : ExportFormat.ndjson,
+                ExportFilter.of(frequency, type, startDate, endDate), request);
     }
 
     /**
@@ -162,35 +247,82 @@ public class TransactionController {
      * @return PDF file download or JSON error response
      */
     @GetMapping("/export/pdf")
-    public ResponseEntity<?> exportPdf(Authentication authentication) {
+    public ResponseEntity<?> exportPdf(
+            Authentication authentication,
+            @RequestParam(required = false) String frequency,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            HttpServletRequest request) {
+        return export(authentication, ExportFormat.pdf, ExportFilter.of(frequency, type, startDate, endDate), request);
+    }
+
+    private ResponseEntity<?> export(Authentication authentication, ExportFormat format, ExportFilter filter,
+            HttpServletRequest request) {
         try {
             // Step 1: Get the user ID from the authentication token
+            // The principal contains the user ID that was set during JWT authentication
             Integer userId = (Integer) authentication.getPrincipal();
 
-            // Step 2: Generate the PDF data using our ExportService
-            // The PDF generation is more complex than CSV (see ExportService for details)
-            byte[] pdfData = exportService.generatePdf(userId);
+            // Step 2: The ETag changes whenever the filter or any of the user's transactions change
+            String cacheKey = exportCache.key(userId, format.getExtension(), filter);
+            String etag = "\"" + cacheKey + "\"";
 
-            // Step 3: Set up the HTTP headers for PDF file download
+            // Step 3: Set up the HTTP headers for file download
+            // HttpHeaders is a Spring class that helps set response headers
             HttpHeaders headers = new HttpHeaders();
+            headers.setETag(etag);
+            // Browsers may keep the file but must check the ETag before reusing it
+            headers.setCacheControl(CacheControl.noCache().cachePrivate());
 
-            // Set the filename for the download
-            headers.setContentDispositionFormData("attachment", "transactions.pdf");
+            // The client already has this exact file
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && (ifNoneMatch.equals(etag) || ifNoneMatch.equals("*"))) {
+                return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+            }
 
-            // "application/pdf" is the MIME type for PDF files
-            headers.setContentType(MediaType.APPLICATION_PDF);
+            // Content-Disposition header tells the browser to download this as a file
+            // "attachment" means download, "filename=..." sets the default filename
+            headers.setContentDispositionFormData("attachment", "transactions." + format.getExtension());
 
-            // Step 4: Return the response with the PDF data
-            return new ResponseEntity<>(pdfData, headers, HttpStatus.OK);
+            // Content-Type tells the browser what type of file this is
+            // (e.g. "text/csv" for CSV files, "application/gzip" for compressed ones)
+            headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+
+            // Step 4: Send the cached file if this export was rendered before
+            Path cached = exportCache.find(cacheKey, format.getExtension());
+            if (cached != null) {
+                try {
+                    return FileResponses.serve(cached, headers, request);
+                } catch (NoSuchFileException e) {
+                    // Expired just now; render it again below
+                }
+            }
+
+            // Step 5: Check for transactions up front, while we can still send a JSON error
+            if (!exportService.hasTransactions(userId, filter)) {
+                throw new Exception("No transactions found");
+            }
+
+            // Step 6: Return a StreamingResponseBody
+            // Spring calls it on a separate thread and it writes the file straight
+            // into the response (and the export cache), so it is never built up in memory
+            StreamingResponseBody body = out -> {
+                try (ExportCache.Writer writer = exportCache.writer(cacheKey, format.getExtension(), out)) {
+                    exportService.write(userId, format, filter, writer);
+                    writer.commit();
+                }
+            };
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
 
         } catch (Exception e) {
-            // If an error occurs, return a JSON error response
+            // If an error occurs (e.g., no transactions found), return a JSON error
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", e.getMessage());
 
-            // Return appropriate status code based on error type
-            if (e.getMessage().contains("No transactions found")) {
+            // Return 404 for "no transactions found", 500 for other errors
+            if (e.getMessage() != null && e.getMessage().contains("No transactions found")) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
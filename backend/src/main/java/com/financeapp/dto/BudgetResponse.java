@@ -0,0 +1,40 @@
+package com.financeapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.financeapp.model.Budget;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JSON view of a Budget.
+ * Property order matches the HashMap-based response this replaced.
+ */
+@JsonPropertyOrder({ "amount", "updated_at", "user_id", "created_at", "id", "category" })
+public record BudgetResponse(
+        Integer id,
+        @JsonProperty("user_id") Integer userId,
+        String category,
+        BigDecimal amount,
+        @JsonProperty("created_at") LocalDateTime createdAt,
+        @JsonProperty("updated_at") LocalDateTime updatedAt) {
+
+    public static BudgetResponse from(Budget budget) {
+        return new BudgetResponse(
+                budget.getId(),
+                budget.getUserId(),
+                budget.getCategory(),
+                budget.getAmount(),
+                budget.getCreatedAt(),
+                budget.getUpdatedAt());
+    }
+
+    /**
+     * Response body of GET /api/user/budgets.
+     */
+    @JsonPropertyOrder({ "budgets", "success" })
+    public record ListResponse(boolean success, List<BudgetResponse> budgets) {
+    }
+}
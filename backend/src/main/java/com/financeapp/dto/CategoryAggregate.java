@@ -0,0 +1,19 @@
+package com.financeapp.dto;
+
+import com.financeapp.model.Transaction;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for grouped SUM/COUNT rows returned by the analytics queries.
+ * One row per (type, category) pair, so no Transaction entities are loaded.
+ */
+public interface CategoryAggregate {
+    Transaction.TransactionType getType();
+
+    String getCategory();
+
+    BigDecimal getTotalAmount();
+
+    Long getTxnCount();
+}
@@ -0,0 +1,30 @@
+package com.financeapp.dto;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.util.DateFilterUtil;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Resolved filter of an export: date range and transaction type, each null
+ * when not filtered. Built from the same request parameters as the
+ * transaction list.
+ */
+public record ExportFilter(LocalDate fromDate, LocalDate toDate, Transaction.TransactionType type) {
+
+    public static ExportFilter of(String frequency, String type, String startDate, String endDate) {
+        Map<String, LocalDate> dateFilters = DateFilterUtil.parseDateFilters(frequency, startDate, endDate);
+
+        Transaction.TransactionType transactionType = null;
+        if (type != null && !type.equals("all")) {
+            transactionType = Transaction.TransactionType.valueOf(type.toLowerCase());
+        }
+        return new ExportFilter(dateFilters.get("fromDate"), dateFilters.get("toDate"), transactionType);
+    }
+
+    // Stable text form, used in export cache keys
+    public String key() {
+        return fromDate + "|" + toDate + "|" + type;
+    }
+}
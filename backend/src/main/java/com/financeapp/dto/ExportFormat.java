@@ -0,0 +1,44 @@
+package com.financeapp.dto;
+
+/**
+ * File formats the transaction export can produce.
+ * The gzip variants are the same content compressed while it is written.
+ */
+public enum ExportFormat {
+    csv("csv", "text/csv"),
+    csv_gz("csv.gz", "application/gzip"),
+    ndjson("ndjson", "application/x-ndjson"),
+    ndjson_gz("ndjson.gz", "application/gzip"),
+    pdf("pdf", "application/pdf");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public static ExportFormat of(String format, boolean gzip) {
+        String name = format == null ? "csv" : format.toLowerCase();
+        if (!name.equals("csv") && !name.equals("ndjson") && !name.equals("pdf")) {
+            throw new RuntimeException("Format must be csv, ndjson or pdf");
+        }
+        if (gzip && name.equals("pdf")) {
+            throw new RuntimeException("Gzip is only available for csv and ndjson");
+        }
+        return valueOf(gzip ? name + "_gz" : name);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isGzip() {
+        return extension.endsWith(".gz");
+    }
+}
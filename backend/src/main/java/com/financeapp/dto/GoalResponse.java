@@ -0,0 +1,49 @@
+package com.financeapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.financeapp.model.Goal;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JSON view of a Goal.
+ * Property order matches the HashMap-based response this replaced.
+ */
+@JsonPropertyOrder({ "target_amount", "target_date", "updated_at", "user_id", "description",
+        "created_at", "id", "title", "saved_amount", "status" })
+public record GoalResponse(
+        Integer id,
+        @JsonProperty("user_id") Integer userId,
+        String title,
+        String description,
+        @JsonProperty("target_amount") BigDecimal targetAmount,
+        @JsonProperty("saved_amount") BigDecimal savedAmount,
+        @JsonProperty("target_date") String targetDate,
+        String status,
+        @JsonProperty("created_at") LocalDateTime createdAt,
+        @JsonProperty("updated_at") LocalDateTime updatedAt) {
+
+    public static GoalResponse from(Goal goal) {
+        return new GoalResponse(
+                goal.getId(),
+                goal.getUserId(),
+                goal.getTitle(),
+                goal.getDescription(),
+                goal.getTargetAmount(),
+                goal.getSavedAmount(),
+                goal.getTargetDate() != null ? goal.getTargetDate().toString() : null,
+                goal.getStatus().toString(),
+                goal.getCreatedAt(),
+                goal.getUpdatedAt());
+    }
+
+    /**
+     * Response body of GET /api/user/goals.
+     */
+    @JsonPropertyOrder({ "success", "goals" })
+    public record ListResponse(boolean success, List<GoalResponse> goals) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.financeapp.dto;
+
+/**
+ * File formats the transaction import can read.
+ */
+public enum ImportFormat {
+    csv, ofx, qif;
+
+    /**
+     * Uses the format asked for, or else guesses it from the file name
+     * (.ofx and .qfx are OFX, .qif is QIF, anything else is read as CSV).
+     */
+    public static ImportFormat of(String format, String fileName) {
+        if (format != null && !format.isEmpty()) {
+            try {
+                return valueOf(format.toLowerCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Format must be csv, ofx or qif");
+            }
+        }
+        String name = fileName == null ? "" : fileName.toLowerCase();
+        if (name.endsWith(".ofx") || name.endsWith(".qfx")) {
+            return ofx;
+        }
+        if (name.endsWith(".qif")) {
+            return qif;
+        }
+        return csv;
+    }
+}
@@ -0,0 +1,70 @@
+package com.financeapp.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a transaction import: how many rows were imported, how many
+ * failed, and why. Only the first maxErrors row errors are kept, so a file
+ * that is wrong on every line doesn't build a huge response.
+ */
+public class ImportReport {
+
+    private final int maxErrors;
+    private long imported;
+    private long failed;
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void rowsImported(int count) {
+        imported += count;
+    }
+
+    public void rowFailed(long row, String message) {
+        failed++;
+        addError(row, message);
+    }
+
+    /**
+     * Records a whole block of rows as failed, e.g. a chunk whose insert was
+     * rolled back. The error refers to the first row of the block.
+     */
+    public void rowsFailed(long firstRow, long lastRow, int count, String message) {
+        failed += count;
+        addError(firstRow, firstRow == lastRow ? message : message + " (rows " + firstRow + "-" + lastRow + ")");
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("imported", imported);
+        map.put("failed", failed);
+        map.put("errors", errors);
+        map.put("errorsTruncated", errorsTruncated);
+        return map;
+    }
+
+    private void addError(long row, String message) {
+        if (errors.size() >= maxErrors) {
+            errorsTruncated = true;
+            return;
+        }
+        Map<String, Object> error = new HashMap<>();
+        error.put("row", row);
+        error.put("message", message);
+        errors.add(error);
+    }
+}
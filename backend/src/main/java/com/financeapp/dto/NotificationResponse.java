@@ -0,0 +1,41 @@
+package com.financeapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.financeapp.model.Notification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JSON view of a Notification.
+ * Property order matches the HashMap-based response this replaced.
+ */
+@JsonPropertyOrder({ "is_read", "updated_at", "user_id", "created_at", "id", "message", "type" })
+public record NotificationResponse(
+        Integer id,
+        @JsonProperty("user_id") Integer userId,
+        String message,
+        String type,
+        @JsonProperty("is_read") Boolean isRead,
+        @JsonProperty("created_at") LocalDateTime createdAt,
+        @JsonProperty("updated_at") LocalDateTime updatedAt) {
+
+    public static NotificationResponse from(Notification notification) {
+        return new NotificationResponse(
+                notification.getId(),
+                notification.getUserId(),
+                notification.getMessage(),
+                notification.getType().toString(),
+                notification.getIsRead(),
+                notification.getCreatedAt(),
+                notification.getUpdatedAt());
+    }
+
+    /**
+     * Response body of GET /api/user/notifications.
+     */
+    @JsonPropertyOrder({ "success", "notifications" })
+    public record ListResponse(boolean success, List<NotificationResponse> notifications) {
+    }
+}
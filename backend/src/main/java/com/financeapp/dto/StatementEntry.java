@@ -0,0 +1,16 @@
+package com.financeapp.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One transaction read from a bank statement file (OFX or QIF).
+ *
+ * @param amount      Signed as in the statement: negative for money going out
+ * @param category    Category from the file, or null (OFX has none)
+ * @param description Payee and memo
+ * @param reference   Check number or the bank's transaction id, if any
+ */
+public record StatementEntry(LocalDate date, BigDecimal amount, String category, String description,
+        String reference) {
+}
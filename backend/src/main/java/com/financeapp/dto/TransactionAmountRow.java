@@ -0,0 +1,22 @@
+package com.financeapp.dto;
+
+import com.financeapp.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection with just the transaction columns used by analytics, so that
+ * loading a user's full history doesn't build Transaction entities.
+ */
+public interface TransactionAmountRow {
+    Integer getId();
+
+    LocalDate getTransactionDate();
+
+    Transaction.TransactionType getType();
+
+    String getCategory();
+
+    BigDecimal getAmount();
+}
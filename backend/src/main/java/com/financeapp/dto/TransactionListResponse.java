@@ -0,0 +1,33 @@
+package com.financeapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Response body of GET /api/user/transactions.
+ * pagination is either OffsetPagination (page/pageSize) or CursorPagination (cursor).
+ */
+@JsonPropertyOrder({ "pagination", "success", "transactions" })
+public record TransactionListResponse(
+        boolean success,
+        List<TransactionResponse> transactions,
+        Object pagination) {
+
+    public static TransactionListResponse of(List<TransactionResponse> transactions, Object pagination) {
+        return new TransactionListResponse(true, transactions, pagination);
+    }
+
+    @JsonPropertyOrder({ "total", "totalPages", "pageSize", "page" })
+    public record OffsetPagination(long total, int page, int pageSize, int totalPages) {
+    }
+
+    @JsonPropertyOrder({ "nextCursor", "total", "hasMore", "pageSize" })
+    public record CursorPagination(
+            int pageSize,
+            boolean hasMore,
+            String nextCursor,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Long total) {
+    }
+}
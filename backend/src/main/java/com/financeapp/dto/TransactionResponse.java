@@ -0,0 +1,42 @@
+package com.financeapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.financeapp.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * JSON view of a Transaction.
+ * Property order matches the HashMap-based response this replaced, so the
+ * serialized output is unchanged.
+ */
+@JsonPropertyOrder({ "reference", "transaction_date", "amount", "updated_at", "user_id",
+        "description", "created_at", "id", "type", "category" })
+public record TransactionResponse(
+        Integer id,
+        @JsonProperty("user_id") Integer userId,
+        String type,
+        String category,
+        BigDecimal amount,
+        String reference,
+        String description,
+        @JsonProperty("transaction_date") String transactionDate,
+        @JsonProperty("created_at") LocalDateTime createdAt,
+        @JsonProperty("updated_at") LocalDateTime updatedAt) {
+
+    public static TransactionResponse from(Transaction transaction) {
+        return new TransactionResponse(
+                transaction.getId(),
+                transaction.getUserId(),
+                transaction.getType().toString(),
+                transaction.getCategory(),
+                transaction.getAmount(),
+                transaction.getReference(),
+                transaction.getDescription(),
+                transaction.getTransactionDate().toString(),
+                transaction.getCreatedAt(),
+                transaction.getUpdatedAt());
+    }
+}
@@ -0,0 +1,40 @@
+package com.financeapp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a batch job over all users. Every user with an id up to
+ * lastUserId has been processed by the current (or last) run.
+ */
+@Entity
+@Table(name = "batch_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCheckpoint {
+    @Id
+    @Column(name = "job_name", length = 50)
+    private String jobName;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "last_user_id", nullable = false)
+    private Integer lastUserId = 0;
+    
+    @Column(nullable = false)
+    private Boolean completed = false;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
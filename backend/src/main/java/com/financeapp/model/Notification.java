@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Entity
 @Table(name = "notifications")
@@ -22,6 +26,10 @@ public class Notification {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String message;
     
+    // SHA-256 of the message, used to find duplicates through an index
+    @Column(name = "message_hash", nullable = false, length = 64, columnDefinition = "CHAR(64)")
+    private String messageHash;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 10)
     private NotificationType type = NotificationType.info;
@@ -39,6 +47,7 @@ public class Notification {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        messageHash = hashMessage(message);
     }
     
     @PreUpdate
@@ -46,6 +55,19 @@ public class Notification {
         updatedAt = LocalDateTime.now();
     }
     
+    /**
+     * Hex SHA-256 of the UTF-8 bytes of a message, the same value as
+     * MySQL's SHA2(message, 256).
+     */
+    public static String hashMessage(String message) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(message.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
     public enum NotificationType {
         info, warning, success, tip
     }
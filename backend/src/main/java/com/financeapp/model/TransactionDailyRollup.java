@@ -0,0 +1,54 @@
+package com.financeapp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated transaction totals per user, day, type and category.
+ * Kept in step with the transactions table by TransactionRollupService.
+ */
+@Entity
+@Table(name = "transaction_daily_rollup")
+@IdClass(TransactionDailyRollup.RollupKey.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDailyRollup {
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Transaction.TransactionType type;
+
+    @Id
+    @Column(nullable = false, length = 100)
+    private String category;
+
+    @Column(name = "total_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "txn_count", nullable = false)
+    private Integer txnCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RollupKey implements Serializable {
+        private Integer userId;
+        private LocalDate day;
+        private Transaction.TransactionType type;
+        private String category;
+    }
+}
@@ -2,34 +2,81 @@ package com.financeapp.repository;
 
 import com.financeapp.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
-// import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Integer> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Integer userId);
-    
     List<Notification> findTop6ByUserIdOrderByCreatedAtDesc(Integer userId);
     
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Integer userId);
     
+    long countByUserIdAndIsReadFalse(Integer userId);
+    
+    // Notifications a reconnecting stream missed (ids are increasing)
+    List<Notification> findTop50ByUserIdAndIdGreaterThanOrderByIdAsc(Integer userId, Integer afterId);
+    
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId")
     long countByUserId(@Param("userId") Integer userId);
     
-    @Query("SELECT n FROM Notification n WHERE n.userId = :userId " +
-           "AND n.message = :message " +
+    // Hashes (of the given ones) of the user's notifications created since threshold
+    @Query("SELECT n.messageHash FROM Notification n WHERE n.userId = :userId " +
+           "AND n.messageHash IN :hashes " +
            "AND n.createdAt >= :threshold")
-    List<Notification> findDuplicateNotifications(
+    List<String> findRecentMessageHashes(
         @Param("userId") Integer userId,
-        @Param("message") String message,
+        @Param("hashes") Collection<String> hashes,
         @Param("threshold") LocalDateTime threshold
     );
     
-    // Delete old notifications - keep only 5 most recent
-    // This is handled in service layer for better compatibility
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.updatedAt = :now " +
+           "WHERE n.userId = :userId AND n.isRead = false")
+    int markAllAsRead(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
+    
+    // Ids of other users are left alone (and not counted)
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.updatedAt = :now " +
+           "WHERE n.userId = :userId AND n.id IN :ids AND n.isRead = false")
+    int markAsRead(
+        @Param("userId") Integer userId,
+        @Param("ids") Collection<Integer> ids,
+        @Param("now") LocalDateTime now
+    );
+    
+    // Users that have notifications, in id order after afterUserId (keyset paging)
+    @Query(value = "SELECT DISTINCT user_id FROM notifications WHERE user_id > :afterUserId " +
+           "ORDER BY user_id LIMIT :limit", nativeQuery = true)
+    List<Integer> findUserIdsAfter(@Param("afterUserId") Integer afterUserId, @Param("limit") int limit);
+    
+    // Deletes all but the newest `keep` notifications of every user in the id range
+    @Modifying
+    @Query(value = "DELETE n FROM notifications n JOIN (" +
+           "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id " +
+           "ORDER BY created_at DESC, id DESC) AS position FROM notifications " +
+           "WHERE user_id BETWEEN :fromUserId AND :toUserId) ranked WHERE position > :keep" +
+           ") old ON n.id = old.id", nativeQuery = true)
+    int deleteAllButNewest(
+        @Param("fromUserId") Integer fromUserId,
+        @Param("toUserId") Integer toUserId,
+        @Param("keep") int keep
+    );
+    
+    // Same as deleteAllButNewest, for the given users only
+    @Modifying
+    @Query(value = "DELETE n FROM notifications n JOIN (" +
+           "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id " +
+           "ORDER BY created_at DESC, id DESC) AS position FROM notifications " +
+           "WHERE user_id IN (:userIds)) ranked WHERE position > :keep" +
+           ") old ON n.id = old.id", nativeQuery = true)
+    int deleteAllButNewestOf(
+        @Param("userIds") Collection<Integer> userIds,
+        @Param("keep") int keep
+    );
 }
 
@@ -0,0 +1,88 @@
+package com.financeapp.repository;
+
+import com.financeapp.dto.CategoryAggregate;
+import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TransactionDailyRollupRepository
+        extends JpaRepository<TransactionDailyRollup, TransactionDailyRollup.RollupKey> {
+
+    List<TransactionDailyRollup> findByUserIdAndDayBetween(Integer userId, LocalDate fromDate, LocalDate toDate);
+
+    // Grouped totals per (type, category) for analytics, summed over daily
+    // rollup rows, so only one row per category is returned
+    @Query("SELECT r.type AS type, r.category AS category, " +
+            "SUM(r.totalAmount) AS totalAmount, SUM(r.txnCount) AS txnCount " +
+            "FROM TransactionDailyRollup r WHERE r.userId = :userId " +
+            "AND (:fromDate IS NULL OR r.day >= :fromDate) " +
+            "AND (:toDate IS NULL OR r.day <= :toDate) " +
+            "AND (:type IS NULL OR r.type = :type) " +
+            "GROUP BY r.type, r.category")
+    List<CategoryAggregate> aggregateByTypeAndCategory(
+            @Param("userId") Integer userId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("type") Transaction.TransactionType type);
+
+    // Daily rows for a date range in day order, used to build time series buckets
+    @Query("SELECT r FROM TransactionDailyRollup r WHERE r.userId = :userId " +
+            "AND (:fromDate IS NULL OR r.day >= :fromDate) " +
+            "AND (:toDate IS NULL OR r.day <= :toDate) " +
+            "AND (:type IS NULL OR r.type = :type) " +
+            "ORDER BY r.day")
+    List<TransactionDailyRollup> findForRange(
+            @Param("userId") Integer userId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("type") Transaction.TransactionType type);
+
+    // Adds (or subtracts) an amount and count to one rollup row, creating it if needed
+    @Modifying
+    @Query(value = "INSERT INTO transaction_daily_rollup " +
+            "(user_id, day, type, category, total_amount, txn_count) " +
+            "VALUES (:userId, :day, :type, :category, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + :amount, " +
+            "txn_count = txn_count + :count", nativeQuery = true)
+    int applyDelta(
+            @Param("userId") Integer userId,
+            @Param("day") LocalDate day,
+            @Param("type") String type,
+            @Param("category") String category,
+            @Param("amount") BigDecimal amount,
+            @Param("count") int count);
+
+    // Removes a rollup row once its last transaction has been deleted or moved away
+    @Modifying
+    @Query(value = "DELETE FROM transaction_daily_rollup " +
+            "WHERE user_id = :userId AND day = :day AND type = :type " +
+            "AND category = :category AND txn_count <= 0", nativeQuery = true)
+    int deleteIfEmpty(
+            @Param("userId") Integer userId,
+            @Param("day") LocalDate day,
+            @Param("type") String type,
+            @Param("category") String category);
+
+    // ==================== REBUILD ====================
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_daily_rollup " +
+            "WHERE user_id BETWEEN :fromUserId AND :toUserId", nativeQuery = true)
+    int deleteForUserRange(@Param("fromUserId") Integer fromUserId, @Param("toUserId") Integer toUserId);
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_daily_rollup " +
+            "(user_id, day, type, category, total_amount, txn_count) " +
+            "SELECT user_id, transaction_date, type, category COLLATE utf8mb4_bin, SUM(amount), COUNT(*) " +
+            "FROM transactions WHERE user_id BETWEEN :fromUserId AND :toUserId " +
+            "GROUP BY user_id, transaction_date, type, category COLLATE utf8mb4_bin", nativeQuery = true)
+    int rebuildForUserRange(@Param("fromUserId") Integer fromUserId, @Param("toUserId") Integer toUserId);
+}
@@ -1,14 +1,20 @@
 package com.financeapp.repository;
 
+import com.financeapp.dto.TransactionAmountRow;
 import com.financeapp.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
@@ -16,9 +22,24 @@ public interface TransactionRepository extends JpaRepository<Transaction, Intege
 
     List<Transaction> findByUserId(Integer userId);
 
-    // Method to get all transactions for a user, ordered by date (newest first)
-    // Used by the export feature to generate CSV and PDF reports
-    List<Transaction> findByUserIdOrderByTransactionDateDesc(Integer userId);
+    // Transactions for the CSV and PDF exports, newest first.
+    // Read through a forward-only JDBC cursor in batches of 500 rows (needs
+    // useCursorFetch=true on the MySQL URL). Must be consumed inside a
+    // transaction and closed afterwards.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId " +
+            "AND (:fromDate IS NULL OR t.transactionDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR t.transactionDate <= :toDate) " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "ORDER BY t.transactionDate DESC")
+    Stream<Transaction> streamForExport(
+            @Param("userId") Integer userId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("type") Transaction.TransactionType type);
 
     @Query("SELECT t FROM Transaction t WHERE t.userId = :userId " +
             "AND (:fromDate IS NULL OR t.transactionDate >= :fromDate) " +
@@ -32,13 +53,38 @@ public interface TransactionRepository extends JpaRepository<Transaction, Intege
             @Param("type") Transaction.TransactionType type,
             Pageable pageable);
 
+    // Keyset pagination: rows strictly after the cursor in list order
+    // The first page passes null cursor values; the Pageable only sets the limit
     @Query("SELECT t FROM Transaction t WHERE t.userId = :userId " +
+            "AND (:fromDate IS NULL OR t.transactionDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR t.transactionDate <= :toDate) " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "AND (:afterDate IS NULL OR t.transactionDate < :afterDate " +
+            "OR (t.transactionDate = :afterDate AND (t.createdAt < :afterCreatedAt " +
+            "OR (t.createdAt = :afterCreatedAt AND t.id < :afterId)))) " +
+            "ORDER BY t.transactionDate DESC, t.createdAt DESC, t.id DESC")
+    List<Transaction> findTransactionsAfterCursor(
+            @Param("userId") Integer userId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("type") Transaction.TransactionType type,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Integer afterId,
+            Pageable limit);
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.userId = :userId " +
             "AND (:fromDate IS NULL OR t.transactionDate >= :fromDate) " +
             "AND (:toDate IS NULL OR t.transactionDate <= :toDate) " +
             "AND (:type IS NULL OR t.type = :type)")
-    List<Transaction> findTransactionsForAnalytics(
+    long countTransactionsWithFilters(
             @Param("userId") Integer userId,
             @Param("fromDate") LocalDate fromDate,
             @Param("toDate") LocalDate toDate,
             @Param("type") Transaction.TransactionType type);
+
+    // Only the columns analytics needs, used to load ColumnarTransactionStore
+    @Query("SELECT t.id AS id, t.transactionDate AS transactionDate, t.type AS type, " +
+            "t.category AS category, t.amount AS amount FROM Transaction t WHERE t.userId = :userId")
+    List<TransactionAmountRow> findAmountRowsByUserId(@Param("userId") Integer userId);
 }
@@ -2,12 +2,36 @@ package com.financeapp.repository;
 
 import com.financeapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    Integer findMaxId();
+
+    // Next page of user ids after afterId (keyset paging for batch jobs)
+    @Query(value = "SELECT id FROM users WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Integer> findIdsAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
+
+    // Locks the user rows of an id range until the transaction ends (rollup rebuild, notification generation)
+    @Query(value = "SELECT id FROM users WHERE id BETWEEN :fromId AND :toId FOR UPDATE", nativeQuery = true)
+    List<Integer> lockIdsBetween(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    // data_version is not mapped on User, so saving a User can never write back an old value
+    @Query(value = "SELECT data_version FROM users WHERE id = :userId", nativeQuery = true)
+    Long findDataVersion(@Param("userId") Integer userId);
+
+    // Also locks the user's row, which is what serialises writes with the rollup rebuild
+    @Modifying
+    @Query(value = "UPDATE users SET data_version = data_version + 1 WHERE id = :userId", nativeQuery = true)
+    int incrementDataVersion(@Param("userId") Integer userId);
 }
 
@@ -37,9 +37,14 @@ import java.util.ArrayList;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/user/notifications/stream";
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private StreamTicketStore streamTicketStore;
+
     /**
      * Main filter method - called for every HTTP request.
      * 
@@ -55,11 +60,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Our frontend sends the JWT in this custom header after login
         String token = request.getHeader("usertoken");
 
+        // The browser's EventSource can't set headers, so the notification stream
+        // is opened with a single-use ticket (see StreamTicketStore) instead
+        Integer ticketUserId = null;
+        if (token == null && STREAM_PATH.equals(request.getServletPath())) {
+            String ticket = request.getParameter("ticket");
+            if (ticket != null) {
+                ticketUserId = streamTicketStore.redeem(ticket);
+            }
+        }
+
         // Step 2: Check if token exists and is valid
-        if (token != null && jwtUtil.validateToken(token)) {
+        if (ticketUserId != null || (token != null && jwtUtil.validateToken(token))) {
 
             // Step 3: Extract the user ID from the token
-            Integer userId = jwtUtil.getUserIdFromToken(token);
+            Integer userId = ticketUserId != null ? ticketUserId : jwtUtil.getUserIdFromToken(token);
 
             // Step 4: Check if user ID exists and no authentication is already set
             // (prevents overwriting existing authentication)
@@ -0,0 +1,97 @@
+package com.financeapp.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, single-use tickets for opening the notification stream.
+ *
+ * The browser's EventSource can't send the "usertoken" header, and the JWT
+ * must not go into the URL (it would end up in access logs, proxies and
+ * browser history, and stays valid for days). Instead the client asks for a
+ * ticket with its token in the header and puts the ticket in the stream URL.
+ * A ticket opens one stream and expires after notifications.stream.ticket-ttl-ms,
+ * so a logged URL is useless.
+ *
+ * Tickets are kept in memory, so the stream must be opened on the node that
+ * issued the ticket. A user can hold at most
+ * notifications.stream.max-tickets-per-user unused tickets, so a client
+ * asking for tickets in a loop can't fill the node's memory.
+ */
+@Component
+public class StreamTicketStore {
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    // Unused tickets of each user
+    private final Map<Integer, Integer> outstandingByUser = new ConcurrentHashMap<>();
+
+    @Value("${notifications.stream.ticket-ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${notifications.stream.max-tickets-per-user:10}")
+    private int maxPerUser;
+
+    private record Ticket(Integer userId, long expiresAtMillis) {
+    }
+
+    /**
+     * @throws RuntimeException if the user already holds the maximum of unused tickets
+     */
+    public String issue(Integer userId) {
+        outstandingByUser.compute(userId, (id, count) -> {
+            int outstanding = count != null ? count : 0;
+            if (outstanding >= maxPerUser) {
+                throw new RuntimeException("Too many stream tickets requested, please try again later");
+            }
+            return outstanding + 1;
+        });
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(userId, System.currentTimeMillis() + ttlMs));
+        return ticket;
+    }
+
+    /**
+     * Uses up the ticket.
+     *
+     * @return Id of the user the ticket was issued to, or null if it is unknown, used or expired
+     */
+    public Integer redeem(String ticket) {
+        Ticket issued = tickets.remove(ticket);
+        if (issued == null) {
+            return null;
+        }
+        release(issued.userId());
+        if (issued.expiresAtMillis() < System.currentTimeMillis()) {
+            return null;
+        }
+        return issued.userId();
+    }
+
+    // Tickets that were never used
+    @Scheduled(fixedDelay = 60000)
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Ticket> entry : tickets.entrySet()) {
+            // Only whoever removes the ticket releases it, this or redeem()
+            if (entry.getValue().expiresAtMillis() < now && tickets.remove(entry.getKey(), entry.getValue())) {
+                release(entry.getValue().userId());
+            }
+        }
+    }
+
+    private void release(Integer userId) {
+        outstandingByUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,129 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache for TransactionService.getAnalytics results.
+ *
+ * Entries are keyed by the resolved date range, so a transaction write only
+ * has to drop the entries of that user whose range and type include the
+ * written transaction. Hit, miss and eviction counters are published to
+ * Micrometer as the "analytics" cache.
+ */
+@Component
+public class AnalyticsCache {
+
+    public record Key(Integer userId, LocalDate fromDate, LocalDate toDate, Transaction.TransactionType type) {
+
+        // True if a transaction on this day and of this type is part of the cached result
+        boolean covers(LocalDate day, Transaction.TransactionType transactionType) {
+            return (fromDate == null || !day.isBefore(fromDate))
+                    && (toDate == null || !day.isAfter(toDate))
+                    && (type == null || type == transactionType);
+        }
+    }
+
+    private final Cache<Key, Map<String, Object>> cache;
+
+    // Keys currently cached (or being loaded) per user, so invalidation doesn't scan the whole cache.
+    // Each key maps to the value it was loaded with, or to LOADING, so the removal of an
+    // earlier entry for the same key can tell it is not the current one.
+    private final Map<Integer, Map<Key, Object>> keysByUser = new ConcurrentHashMap<>();
+
+    private static final Object LOADING = new Object();
+
+    public AnalyticsCache(
+            @Value("${analytics.cache.max-size:10000}") long maxSize,
+            @Value("${analytics.cache.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .removalListener((Key key, Map<String, Object> value, RemovalCause cause) -> {
+                    if (key != null && cause != RemovalCause.REPLACED) {
+                        forgetKey(key, value);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "analytics");
+    }
+
+    public Map<String, Object> get(Key key, Function<Key, Map<String, Object>> loader) {
+        return cache.get(key, k -> {
+            // Indexed before loading, so an invalidation during the load drops the result
+            index(k, LOADING);
+            Map<String, Object> value;
+            try {
+                value = loader.apply(k);
+            } catch (RuntimeException e) {
+                forgetKey(k, LOADING);
+                throw e;
+            }
+            index(k, value);
+            return value;
+        });
+    }
+
+    /**
+     * Drops the cached results of a user that include a transaction on the
+     * given day and of the given type. Inside a database transaction this is
+     * deferred until after commit, so a concurrent read can't re-cache the
+     * old totals.
+     */
+    public void invalidate(Integer userId, LocalDate day, Transaction.TransactionType type) {
+        AfterCommit.run(() -> {
+            Map<Key, Object> keys = keysByUser.get(userId);
+            if (keys != null) {
+                keys.keySet().stream()
+                        .filter(k -> k.covers(day, type))
+                        .toList()
+                        .forEach(cache::invalidate);
+            }
+        });
+    }
+
+    public void invalidateUser(Integer userId) {
+        AfterCommit.run(() -> {
+            Map<Key, Object> keys = keysByUser.get(userId);
+            if (keys != null) {
+                cache.invalidateAll(Set.copyOf(keys.keySet()));
+            }
+        });
+    }
+
+    // Adding and removing both run in compute on the user's entry, so neither is lost
+    private void index(Key key, Object value) {
+        keysByUser.compute(key.userId(), (id, keys) -> {
+            Map<Key, Object> userKeys = keys != null ? keys : new ConcurrentHashMap<>();
+            userKeys.put(key, value);
+            return userKeys;
+        });
+    }
+
+    private void forgetKey(Key key, Object value) {
+        keysByUser.computeIfPresent(key.userId(), (id, keys) -> {
+            // The same key may already have been loaded again since this value was removed.
+            // Compared by identity: a reload can return an equal map
+            if (keys.get(key) == value) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.financeapp.service;
 
+import com.financeapp.dto.BudgetResponse;
 import com.financeapp.model.Budget;
 import com.financeapp.repository.BudgetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,7 +45,7 @@ public class BudgetService {
             Budget updated = budgetRepository.save(budget);
             
             Map<String, Object> result = new HashMap<>();
-            result.put("budget", convertToMap(updated));
+            result.put("budget", BudgetResponse.from(updated));
             result.put("message", "Budget updated");
             return result;
         } else {
@@ -55,7 +56,7 @@ public class BudgetService {
             Budget saved = budgetRepository.save(budget);
             
             Map<String, Object> result = new HashMap<>();
-            result.put("budget", convertToMap(saved));
+            result.put("budget", BudgetResponse.from(saved));
             result.put("message", "Budget added");
             return result;
         }
@@ -84,7 +85,7 @@ public class BudgetService {
         Budget updated = budgetRepository.save(budget);
         
         Map<String, Object> result = new HashMap<>();
-        result.put("budget", convertToMap(updated));
+        result.put("budget", BudgetResponse.from(updated));
         return result;
     }
     
@@ -98,16 +99,5 @@ public class BudgetService {
         
         budgetRepository.delete(budget);
     }
-    
-    private Map<String, Object> convertToMap(Budget budget) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", budget.getId());
-        map.put("user_id", budget.getUserId());
-        map.put("category", budget.getCategory());
-        map.put("amount", budget.getAmount());
-        map.put("created_at", budget.getCreatedAt());
-        map.put("updated_at", budget.getUpdatedAt());
-        return map;
-    }
 }
 
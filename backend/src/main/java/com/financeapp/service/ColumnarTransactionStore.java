@@ -0,0 +1,353 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.CategoryAggregate;
+import com.financeapp.dto.TransactionAmountRow;
+import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import com.financeapp.repository.TransactionRepository;
+import com.financeapp.util.AfterCommit;
+import com.financeapp.util.CentsAccumulator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Optional in-heap columnar copy of users' transactions for analytics.
+ *
+ * A loaded user is held as parallel primitive arrays (id, epoch day, amount
+ * in cents, category id, type), so aggregations are tight loops over arrays
+ * instead of rows or entities. Users are loaded on first access and kept in
+ * step by the TransactionService write methods after commit. Once the
+ * estimated size of all loaded users goes over analytics.columnar.max-bytes,
+ * the least recently used users are dropped.
+ *
+ * The query methods return the same shapes as the daily rollup repository,
+ * so callers can switch between the two. Disabled by default.
+ */
+@Component
+public class ColumnarTransactionStore {
+
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    // id + epoch day + cents + category id + type
+    private static final int BYTES_PER_ROW = 4 + 4 + 8 + 4 + 1;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Value("${analytics.columnar.enabled:false}")
+    private boolean enabled;
+
+    @Value("${analytics.columnar.max-bytes:67108864}")
+    private long maxBytes;
+
+    // Access ordered, so iteration starts at the least recently used user
+    private final LinkedHashMap<Integer, UserColumns> users = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    // Users currently being loaded; the flag is set when a write commits during the load
+    private final Map<Integer, Boolean> loading = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Same result as TransactionDailyRollupRepository.aggregateByTypeAndCategory.
+     */
+    public List<CategoryAggregate> aggregateByTypeAndCategory(Integer userId, LocalDate fromDate,
+            LocalDate toDate, Transaction.TransactionType type) {
+        UserColumns columns = columnsFor(userId);
+        int from = fromDate != null ? (int) fromDate.toEpochDay() : Integer.MIN_VALUE;
+        int to = toDate != null ? (int) toDate.toEpochDay() : Integer.MAX_VALUE;
+        int wantedType = type != null ? type.ordinal() : -1;
+
+        List<CategoryAggregate> result = new ArrayList<>();
+        synchronized (columns) {
+            // One slot per (category, type)
+            long[] cents = new long[columns.categoryNames.size() * TYPES.length];
+            long[] counts = new long[cents.length];
+
+            for (int i = 0; i < columns.size; i++) {
+                int day = columns.epochDays[i];
+                if (day < from || day > to || (wantedType >= 0 && columns.types[i] != wantedType)) {
+                    continue;
+                }
+                int slot = columns.categoryIds[i] * TYPES.length + columns.types[i];
+                cents[slot] = Math.addExact(cents[slot], columns.cents[i]);
+                counts[slot]++;
+            }
+
+            for (int slot = 0; slot < cents.length; slot++) {
+                if (counts[slot] > 0) {
+                    result.add(new Aggregate(TYPES[slot % TYPES.length],
+                            columns.categoryNames.get(slot / TYPES.length),
+                            CentsAccumulator.toBigDecimal(cents[slot]), counts[slot]));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Same rows as TransactionDailyRollupRepository.findForRange, built from
+     * the in-memory columns. The returned entities are not managed.
+     */
+    public List<TransactionDailyRollup> findForRange(Integer userId, LocalDate fromDate,
+            LocalDate toDate, Transaction.TransactionType type) {
+        UserColumns columns = columnsFor(userId);
+        int from = fromDate != null ? (int) fromDate.toEpochDay() : Integer.MIN_VALUE;
+        int to = toDate != null ? (int) toDate.toEpochDay() : Integer.MAX_VALUE;
+        int wantedType = type != null ? type.ordinal() : -1;
+
+        // Key packs (day, category id, type) into one long; value is {cents, count}
+        Map<Long, long[]> totals = new HashMap<>();
+        String[] categoryNames;
+        synchronized (columns) {
+            for (int i = 0; i < columns.size; i++) {
+                int day = columns.epochDays[i];
+                if (day < from || day > to || (wantedType >= 0 && columns.types[i] != wantedType)) {
+                    continue;
+                }
+                long key = ((long) day << 32) | ((long) columns.categoryIds[i] * TYPES.length + columns.types[i]);
+                long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+                total[0] = Math.addExact(total[0], columns.cents[i]);
+                total[1]++;
+            }
+            categoryNames = columns.categoryNames.toArray(new String[0]);
+        }
+
+        List<Long> keys = new ArrayList<>(totals.keySet());
+        Collections.sort(keys);
+
+        List<TransactionDailyRollup> rows = new ArrayList<>(keys.size());
+        for (Long key : keys) {
+            long[] total = totals.get(key);
+            int slot = (int) (key & 0xFFFFFFFFL);
+            rows.add(new TransactionDailyRollup(userId, LocalDate.ofEpochDay(key >> 32),
+                    TYPES[slot % TYPES.length], categoryNames[slot / TYPES.length],
+                    CentsAccumulator.toBigDecimal(total[0]), (int) total[1]));
+        }
+        return rows;
+    }
+
+    /**
+     * Adds or replaces a transaction in the loaded copy of its user, once the
+     * current database transaction commits.
+     */
+    public void put(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        Integer userId = transaction.getUserId();
+        int id = transaction.getId();
+        int day = (int) transaction.getTransactionDate().toEpochDay();
+        long cents = CentsAccumulator.toCents(transaction.getAmount());
+        byte type = (byte) transaction.getType().ordinal();
+        String category = transaction.getCategory();
+
+        AfterCommit.run(() -> apply(userId, columns -> {
+            columns.remove(id);
+            columns.append(id, day, cents, type, category);
+        }));
+    }
+
+    /**
+     * Removes a transaction from the loaded copy of its user, once the current
+     * database transaction commits.
+     */
+    public void remove(Integer userId, Integer id) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> apply(userId, columns -> columns.remove(id)));
+    }
+
+    /**
+     * Drops the loaded copy of a user once the current database transaction
+     * commits, e.g. after a bulk import. It is reloaded on next access.
+     */
+    public void invalidateUser(Integer userId) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                if (loading.containsKey(userId)) {
+                    loading.put(userId, true);
+                }
+                UserColumns columns = users.remove(userId);
+                if (columns != null) {
+                    synchronized (columns) {
+                        totalBytes -= columns.estimatedBytes();
+                    }
+                }
+            }
+        });
+    }
+
+    private synchronized void apply(Integer userId, Consumer<UserColumns> change) {
+        if (loading.containsKey(userId)) {
+            loading.put(userId, true);
+        }
+
+        UserColumns columns = users.get(userId);
+        if (columns == null) {
+            return;
+        }
+        synchronized (columns) {
+            long before = columns.estimatedBytes();
+            change.accept(columns);
+            totalBytes += columns.estimatedBytes() - before;
+        }
+        evictOverBudget();
+    }
+
+    private UserColumns columnsFor(Integer userId) {
+        synchronized (this) {
+            UserColumns columns = users.get(userId);
+            if (columns != null) {
+                return columns;
+            }
+            loading.putIfAbsent(userId, false);
+        }
+
+        UserColumns loaded = load(userId);
+
+        synchronized (this) {
+            Boolean changedWhileLoading = loading.remove(userId);
+            UserColumns existing = users.get(userId);
+            if (existing != null) {
+                return existing;
+            }
+            // A write that committed during the load may be missing, so only
+            // use this copy for the current request
+            if (Boolean.FALSE.equals(changedWhileLoading) && loaded.estimatedBytes() <= maxBytes) {
+                users.put(userId, loaded);
+                totalBytes += loaded.estimatedBytes();
+                evictOverBudget();
+            }
+        }
+        return loaded;
+    }
+
+    private UserColumns load(Integer userId) {
+        List<TransactionAmountRow> rows = transactionRepository.findAmountRowsByUserId(userId);
+        UserColumns columns = new UserColumns(rows.size());
+        for (TransactionAmountRow row : rows) {
+            columns.append(row.getId(), (int) row.getTransactionDate().toEpochDay(),
+                    CentsAccumulator.toCents(row.getAmount()), (byte) row.getType().ordinal(), row.getCategory());
+        }
+        return columns;
+    }
+
+    private void evictOverBudget() {
+        Iterator<UserColumns> eldest = users.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            UserColumns columns = eldest.next();
+            synchronized (columns) {
+                totalBytes -= columns.estimatedBytes();
+            }
+            eldest.remove();
+        }
+    }
+
+    private static final class UserColumns {
+        int size;
+        int[] ids;
+        int[] epochDays;
+        long[] cents;
+        int[] categoryIds;
+        byte[] types;
+
+        final List<String> categoryNames = new ArrayList<>();
+        final Map<String, Integer> categoryIdsByName = new HashMap<>();
+        long categoryBytes;
+
+        UserColumns(int capacity) {
+            int initial = Math.max(capacity, 16);
+            ids = new int[initial];
+            epochDays = new int[initial];
+            cents = new long[initial];
+            categoryIds = new int[initial];
+            types = new byte[initial];
+        }
+
+        void append(int id, int day, long amountCents, byte type, String category) {
+            if (size == ids.length) {
+                int grown = size + (size >> 1);
+                ids = Arrays.copyOf(ids, grown);
+                epochDays = Arrays.copyOf(epochDays, grown);
+                cents = Arrays.copyOf(cents, grown);
+                categoryIds = Arrays.copyOf(categoryIds, grown);
+                types = Arrays.copyOf(types, grown);
+            }
+            ids[size] = id;
+            epochDays[size] = day;
+            cents[size] = amountCents;
+            categoryIds[size] = categoryId(category);
+            types[size] = type;
+            size++;
+        }
+
+        // Row order doesn't matter for aggregation, so the last row fills the gap
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    int last = --size;
+                    ids[i] = ids[last];
+                    epochDays[i] = epochDays[last];
+                    cents[i] = cents[last];
+                    categoryIds[i] = categoryIds[last];
+                    types[i] = types[last];
+                    return;
+                }
+            }
+        }
+
+        int categoryId(String category) {
+            Integer id = categoryIdsByName.get(category);
+            if (id == null) {
+                id = categoryNames.size();
+                categoryNames.add(category);
+                categoryIdsByName.put(category, id);
+                // Rough size of the string plus its list and map entries
+                categoryBytes += 96 + 2L * category.length();
+            }
+            return id;
+        }
+
+        long estimatedBytes() {
+            return (long) ids.length * BYTES_PER_ROW + categoryBytes;
+        }
+    }
+
+    private record Aggregate(Transaction.TransactionType type, String category, BigDecimal totalAmount,
+            Long txnCount) implements CategoryAggregate {
+
+        @Override
+        public Transaction.TransactionType getType() {
+            return type;
+        }
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public BigDecimal getTotalAmount() {
+            return totalAmount;
+        }
+
+        @Override
+        public Long getTxnCount() {
+            return txnCount;
+        }
+    }
+}
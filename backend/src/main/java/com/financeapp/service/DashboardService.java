@@ -0,0 +1,215 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.BudgetResponse;
+import com.financeapp.dto.GoalResponse;
+import com.financeapp.dto.TransactionResponse;
+import com.financeapp.model.Budget;
+import com.financeapp.model.Goal;
+import com.financeapp.repository.BudgetRepository;
+import com.financeapp.repository.GoalRepository;
+import com.financeapp.repository.NotificationRepository;
+import com.financeapp.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Builds the payload of GET /api/user/dashboard.
+ *
+ * Each section is an independent query that runs on a bounded pool. A
+ * section that takes longer than dashboard.section-timeout-ms (or fails)
+ * is returned as null and listed in "timedOut"/"failed", so one slow query
+ * doesn't hold up the rest of the dashboard. When the pool is saturated new
+ * sections are not queued on the request thread but reported as failed.
+ *
+ * A section that times out is cancelled, and its queries run in a read-only
+ * transaction with the same time limit, so the driver aborts a statement
+ * that is still running and the pool thread and connection are freed.
+ */
+@Service
+public class DashboardService {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long sectionTimeoutMs;
+
+    // Marker value for a section that did not finish in time
+    private static final Object TIMED_OUT = new Object();
+
+    private final TransactionTemplate sectionTemplate;
+
+    public DashboardService(
+            @Value("${dashboard.executor.pool-size:8}") int poolSize,
+            @Value("${dashboard.executor.queue-capacity:200}") int queueCapacity,
+            @Value("${dashboard.section-timeout-ms:2000}") long sectionTimeoutMs,
+            PlatformTransactionManager transactionManager) {
+        // When the pool and queue are full new sections are rejected (and reported as failed)
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        this.sectionTimeoutMs = sectionTimeoutMs;
+
+        // Transaction timeouts are whole seconds; queries get the remaining time as their JDBC timeout
+        this.sectionTemplate = new TransactionTemplate(transactionManager);
+        this.sectionTemplate.setReadOnly(true);
+        this.sectionTemplate.setTimeout((int) Math.max(1, (sectionTimeoutMs + 999) / 1000));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, Object> getDashboard(Integer userId, String frequency) {
+        Map<String, CompletableFuture<Object>> sections = new LinkedHashMap<>();
+
+        sections.put("analytics", section(() -> transactionService.getAnalytics(
+                userId, frequency, "all", null, null)));
+
+        sections.put("recentTransactions", section(() -> transactionRepository
+                .findTransactionsAfterCursor(userId, null, null, null, null, null, null, PageRequest.of(0, 5))
+                .stream().map(TransactionResponse::from).toList()));
+
+        sections.put("budgets", section(() -> getBudgetUsage(userId, frequency)));
+
+        sections.put("goals", section(() -> getGoalProgress(userId)));
+
+        sections.put("unreadNotifications", section(() -> notificationRepository.countByUserIdAndIsReadFalse(userId)));
+
+        Map<String, Object> result = new HashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+
+        sections.forEach((name, future) -> {
+            try {
+                Object value = future.join();
+                if (value == TIMED_OUT) {
+                    timedOut.add(name);
+                    result.put(name, null);
+                } else {
+                    result.put(name, value);
+                }
+            } catch (CompletionException e) {
+                System.err.println("Dashboard section " + name + " failed: " + e.getCause().getMessage());
+                failed.add(name);
+                result.put(name, null);
+            }
+        });
+
+        // Top 5 expense categories, taken from the analytics section
+        Object analytics = result.get("analytics");
+        if (analytics != null) {
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> categories =
+                    (List<Map<String, Object>>) ((Map<String, Object>) analytics).get("categories");
+            result.put("topCategories", categories.stream()
+                    .filter(c -> "expense".equals(c.get("type")))
+                    .limit(5)
+                    .toList());
+        } else {
+            result.put("topCategories", null);
+        }
+
+        result.put("timedOut", timedOut);
+        result.put("failed", failed);
+        return result;
+    }
+
+    private CompletableFuture<Object> section(Supplier<Object> query) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(sectionTemplate.execute(status -> query.get()));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new RuntimeException("Dashboard is busy, section skipped"));
+            return result;
+        }
+
+        result.completeOnTimeout(TIMED_OUT, sectionTimeoutMs, TimeUnit.MILLISECONDS);
+        result.thenAccept(value -> {
+            if (value == TIMED_OUT) {
+                // Not started yet: never runs. Running: interrupted; its query hits the transaction timeout
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Each budget with the amount spent in its category over the dashboard period
+    private List<Map<String, Object>> getBudgetUsage(Integer userId, String frequency) {
+        List<Budget> budgets = budgetRepository.findByUserIdOrderByCategoryAsc(userId);
+        if (budgets.isEmpty()) {
+            return List.of();
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> categories = (List<Map<String, Object>>) transactionService
+                .getAnalytics(userId, frequency, "expense", null, null).get("categories");
+
+        // Budgets match categories case-insensitively, like the Budget Status card
+        Map<String, BigDecimal> spentByCategory = new HashMap<>();
+        for (Map<String, Object> category : categories) {
+            spentByCategory.merge(((String) category.get("category")).toLowerCase(),
+                    (BigDecimal) category.get("totalAmount"), BigDecimal::add);
+        }
+
+        List<Map<String, Object>> usage = new ArrayList<>();
+        for (Budget budget : budgets) {
+            BigDecimal spent = spentByCategory.getOrDefault(budget.getCategory().toLowerCase(), BigDecimal.ZERO);
+            Map<String, Object> item = new HashMap<>();
+            item.put("budget", BudgetResponse.from(budget));
+            item.put("spent", spent);
+            item.put("percentUsed", percentOf(spent, budget.getAmount()));
+            usage.add(item);
+        }
+        return usage;
+    }
+
+    private List<Map<String, Object>> getGoalProgress(Integer userId) {
+        List<Map<String, Object>> progress = new ArrayList<>();
+        for (Goal goal : goalRepository.findByUserIdOrderByCreatedAtDesc(userId)) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("goal", GoalResponse.from(goal));
+            item.put("percentComplete", percentOf(goal.getSavedAmount(), goal.getTargetAmount()));
+            progress.add(item);
+        }
+        return progress;
+    }
+
+    private double percentOf(BigDecimal part, BigDecimal whole) {
+        if (whole == null || whole.compareTo(BigDecimal.ZERO) <= 0) {
+            return 0;
+        }
+        return part.divide(whole, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100")).doubleValue();
+    }
+}
@@ -0,0 +1,188 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.ExportFilter;
+import com.financeapp.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of rendered exports.
+ *
+ * An export is identified by a hash of (user, format, filter, user's data
+ * version). The data version is bumped by every transaction write, so a
+ * hash never refers to stale content. It is used both as the HTTP ETag and
+ * as the name of the cached file. Files are written while the export is
+ * streamed to the client and removed export.cache.ttl-minutes after they
+ * were last written; a download already in progress keeps its open file
+ * (see FileResponses).
+ */
+@Component
+public class ExportCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${export.cache-dir}")
+    private Path cacheDir;
+
+    @Value("${export.cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @PostConstruct
+    public void createCacheDir() throws IOException {
+        Files.createDirectories(cacheDir);
+    }
+
+    public String key(Integer userId, String format, ExportFilter filter) {
+        Long dataVersion = userRepository.findDataVersion(userId);
+        // The PDF prints the day it was generated, so it is only reusable on the same day
+        String generatedOn = format.equals("pdf") ? LocalDate.now().toString() : "";
+        String source = userId + "|" + format + "|" + filter.key() + "|" + dataVersion + "|" + generatedOn;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the cached file for this key, or null if it hasn't been rendered
+     */
+    public Path find(String key, String format) {
+        Path file = cacheDir.resolve(key + "." + format);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * Wraps the response stream so everything written to it is also saved
+     * under the key. The file is only kept if commit() is called before
+     * close(); a failed or abandoned export leaves nothing behind.
+     */
+    public Writer writer(String key, String format, OutputStream response) {
+        return new Writer(response, cacheDir.resolve(key + "." + format),
+                cacheDir.resolve(key + "." + format + "." + UUID.randomUUID() + ".part"));
+    }
+
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:300000}")
+    public void removeExpired() {
+        long cutoffMillis = System.currentTimeMillis() - Duration.ofMinutes(ttlMinutes).toMillis();
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.filter(file -> {
+                try {
+                    return Files.getLastModifiedTime(file).toMillis() < cutoffMillis;
+                } catch (IOException e) {
+                    return false;
+                }
+            }).forEach(ExportCache::deleteQuietly);
+        } catch (IOException e) {
+            System.err.println("Error cleaning export cache directory: " + e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not delete cached export " + file + ": " + e.getMessage());
+        }
+    }
+
+    public static class Writer extends OutputStream {
+        private final OutputStream response;
+        private final Path target;
+        private final Path partial;
+        private OutputStream file;
+        private boolean committed;
+
+        Writer(OutputStream response, Path target, Path partial) {
+            this.response = response;
+            this.target = target;
+            this.partial = partial;
+            try {
+                this.file = Files.newOutputStream(partial);
+            } catch (IOException e) {
+                // Caching is best effort; the client still gets the export
+                System.err.println("Could not create cached export " + partial + ": " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            response.write(b);
+            if (file != null) {
+                try {
+                    file.write(b);
+                } catch (IOException e) {
+                    stopCaching(e);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            response.write(b, off, len);
+            if (file != null) {
+                try {
+                    file.write(b, off, len);
+                } catch (IOException e) {
+                    stopCaching(e);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            response.flush();
+        }
+
+        public void commit() {
+            committed = true;
+        }
+
+        // Closes the cache file only; the response stream belongs to the caller
+        @Override
+        public void close() {
+            if (file == null) {
+                return;
+            }
+            try {
+                file.close();
+                if (committed) {
+                    Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                System.err.println("Could not save cached export " + target + ": " + e.getMessage());
+            } finally {
+                deleteQuietly(partial);
+                file = null;
+            }
+        }
+
+        private void stopCaching(IOException e) {
+            System.err.println("Could not write cached export " + partial + ": " + e.getMessage());
+            try {
+                file.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+            deleteQuietly(partial);
+            file = null;
+        }
+    }
+}
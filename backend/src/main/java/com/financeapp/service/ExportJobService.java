@@ -0,0 +1,233 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.ExportFilter;
+import com.financeapp.dto.ExportFormat;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Runs exports in the background and keeps the finished files in a
+ * local spool directory until they are downloaded or expire.
+ *
+ * Jobs run on a bounded pool (export.jobs.pool-size workers, at most
+ * export.jobs.queue-capacity waiting), so large PDFs no longer hold a
+ * request thread. A user can have at most export.jobs.max-per-user jobs
+ * queued or running, so one user can't fill the queue for everyone. Finished and failed jobs are removed, together with their
+ * file, export.jobs.ttl-minutes after they finish. The job list is kept in
+ * memory; files left over from a previous run are cleaned up by age.
+ */
+@Service
+public class ExportJobService {
+
+    public enum Status {
+        queued, running, completed, failed
+    }
+
+    @Getter
+    public static class ExportJob {
+        private final String id;
+        private final Integer userId;
+        private final ExportFormat format;
+        private final ExportFilter filter;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile Status status = Status.queued;
+        private volatile LocalDateTime finishedAt;
+        private volatile Path file;
+        private volatile String error;
+
+        ExportJob(String id, Integer userId, ExportFormat format, ExportFilter filter) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+            this.filter = filter;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("format", format.getExtension());
+            map.put("status", status);
+            map.put("createdAt", createdAt);
+            map.put("finishedAt", finishedAt);
+            if (status == Status.completed) {
+                map.put("downloadUrl", "/api/user/transactions/export/jobs/" + id + "/download");
+            }
+            if (error != null) {
+                map.put("message", error);
+            }
+            return map;
+        }
+    }
+
+    @Autowired
+    private ExportService exportService;
+
+    @Value("${export.spool-dir}")
+    private Path spoolDir;
+
+    @Value("${export.jobs.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    // Queued or running jobs per user
+    private final Map<Integer, Integer> inFlight = new ConcurrentHashMap<>();
+
+    private final int maxPerUser;
+
+    public ExportJobService(
+            @Value("${export.jobs.pool-size:2}") int poolSize,
+            @Value("${export.jobs.queue-capacity:50}") int queueCapacity,
+            @Value("${export.jobs.max-per-user:3}") int maxPerUser) {
+        this.maxPerUser = maxPerUser;
+        // No CallerRunsPolicy here: running the export on the request thread is what jobs avoid
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    public void createSpoolDir() throws IOException {
+        Files.createDirectories(spoolDir);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ExportJob submit(Integer userId, ExportFormat format, ExportFilter filter) {
+        if (!exportService.hasTransactions(userId, filter)) {
+            throw new RuntimeException("No transactions found");
+        }
+
+        inFlight.compute(userId, (id, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxPerUser) {
+                throw new RuntimeException("You already have " + maxPerUser
+                        + " exports in progress, please wait for one to finish");
+            }
+            return current + 1;
+        });
+
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), userId, format, filter);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> {
+                try {
+                    render(job);
+                } finally {
+                    finished(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            finished(userId);
+            throw new RuntimeException("Too many exports in progress, please try again later");
+        }
+        return job;
+    }
+
+    private void finished(Integer userId) {
+        inFlight.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Returns a job of this user. Jobs of other users are reported as not
+     * found, so job ids can't be probed.
+     */
+    public ExportJob getJob(Integer userId, String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new RuntimeException("Export job not found");
+        }
+        return job;
+    }
+
+    private void render(ExportJob job) {
+        job.status = Status.running;
+        Path target = spoolDir.resolve(job.getId() + "." + job.getFormat().getExtension());
+        Path partial = spoolDir.resolve(job.getId() + "." + job.getFormat().getExtension() + ".part");
+
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                exportService.write(job.getUserId(), job.getFormat(), job.getFilter(), out);
+            }
+            // Only a complete file ever appears under the final name
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            job.file = target;
+            job.status = Status.completed;
+        } catch (Exception e) {
+            System.err.println("Export job " + job.getId() + " failed: " + e.getMessage());
+            deleteQuietly(partial);
+            job.error = "Export failed";
+            job.status = Status.failed;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Removes finished jobs older than export.jobs.ttl-minutes with their
+     * files, plus any spool files that no job refers to any more.
+     */
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:300000}")
+    public void removeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ttlMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.getFinishedAt() == null || job.getFinishedAt().isAfter(cutoff)) {
+                return false;
+            }
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return true;
+        });
+
+        long cutoffMillis = System.currentTimeMillis() - Duration.ofMinutes(ttlMinutes).toMillis();
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            files.filter(file -> !jobs.containsKey(jobIdOf(file)))
+                    .filter(file -> lastModifiedMillis(file) < cutoffMillis)
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            System.err.println("Error cleaning export spool directory: " + e.getMessage());
+        }
+    }
+
+    private static String jobIdOf(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.indexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not delete export file " + file + ": " + e.getMessage());
+        }
+    }
+}
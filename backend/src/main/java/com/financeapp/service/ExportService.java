@@ -1,7 +1,15 @@
 package com.financeapp.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.financeapp.dto.ExportFilter;
+import com.financeapp.dto.ExportFormat;
+import com.financeapp.dto.TransactionResponse;
 import com.financeapp.model.Transaction;
 import com.financeapp.repository.TransactionRepository;
+import com.financeapp.util.CentsAccumulator;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
@@ -12,27 +20,38 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.opencsv.CSVWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.math.BigDecimal;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * ExportService handles the export functionality for transactions.
  * 
- * This service provides methods to export user transactions in two formats:
+ * This service provides methods to export user transactions in three formats:
  * 1. CSV (Comma-Separated Values) - A simple text format for spreadsheet
  * applications
- * 2. PDF (Portable Document Format) - A formatted report with summary
+ * 2. NDJSON (newline-delimited JSON) - One JSON object per line, for scripts
+ * 3. PDF (Portable Document Format) - A formatted report with summary
  * 
- * Both methods fetch all transactions for a user and convert them to the
- * respective format.
+ * CSV and NDJSON can also be written gzip-compressed.
+ * 
+ * All exports read the user's transactions through a database cursor and
+ * write the file straight to the response, so none is built in memory.
  */
 @Service
 public class ExportService {
@@ -41,11 +60,31 @@ public class ExportService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    // Used to run streaming exports inside a read-only transaction
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Used to detach exported rows so they can be garbage collected
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Used for the NDJSON export, so dates are written the same way as in API responses
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Compression level for the gzip formats (1 = fastest, 9 = smallest)
+    @Value("${export.gzip-level:6}")
+    private int gzipLevel;
+
     // Date formatter for displaying dates in a readable format (e.g., "05/01/2026")
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+    // Number of PDF table rows laid out and written to the stream at a time
+    private static final int PDF_FLUSH_ROWS = 100;
+
     /**
-     * Generates a CSV file containing all transactions for a user.
+     * Writes a CSV file containing all transactions for a user to the given
+     * output stream.
      * 
      * CSV (Comma-Separated Values) is a simple file format where:
      * - Each line represents one transaction
@@ -57,66 +96,155 @@ public class ExportService {
      * 05/01/2026,Income,Salary,50000.00,Monthly salary
      * 06/01/2026,Expense,Food,500.00,Groceries
      * 
+     * Rows are read through a database cursor and written one at a time, so
+     * neither the full list of transactions nor the full file is ever held in
+     * memory, and the first rows reach the client while the query is still
+     * being read. Call hasTransactions() first: once writing has started the
+     * response can no longer be turned into an error.
+     * 
      * @param userId The ID of the user whose transactions to export
-     * @return byte[] The CSV file content as bytes (ready to be sent as a download)
-     * @throws Exception If no transactions found or any error occurs during
-     *                   generation
+     * @param filter Date range and type of the transactions to include
+     * @param out    The stream to write to (e.g. the HTTP response body); it is
+     *               flushed but not closed
      */
-    public byte[] generateCsv(Integer userId) throws Exception {
-        // Step 1: Fetch all transactions for this user from the database
-        // The repository method returns transactions ordered by date (newest first)
-        List<Transaction> transactions = transactionRepository.findByUserIdOrderByTransactionDateDesc(userId);
-
-        // Step 2: Check if user has any transactions
-        // If not, throw an exception - we can't export empty data
-        if (transactions == null || transactions.isEmpty()) {
-            throw new Exception("No transactions found");
-        }
+    public void writeCsv(Integer userId, ExportFilter filter, OutputStream out) {
+        // Step 1: Open a read-only transaction; the cursor only lives as long as it does
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            // Step 2: Stream the transactions (newest first) instead of loading a List
+            try (Stream<Transaction> transactions = streamTransactions(userId, filter)) {
+                // Step 3: Create a CSVWriter on top of the output stream
+                // StandardCharsets.UTF_8 ensures the file can handle special characters
+                CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+                // Step 4: Write the header row (column names)
+                String[] header = { "Date", "Type", "Category", "Amount", "Description" };
+                csvWriter.writeNext(header);
+
+                // Step 5: Write each transaction as a row
+                transactions.forEach(transaction -> {
+                    csvWriter.writeNext(toCsvRow(transaction));
+                    // Detach the entity so the persistence context doesn't keep every row
+                    entityManager.detach(transaction);
+                });
+
+                // Step 6: Flush what is still buffered; the caller owns (and closes) the stream
+                csvWriter.flush();
+                if (csvWriter.checkError()) {
+                    throw new IOException("Failed to write CSV export");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 
-        // Step 3: Create a ByteArrayOutputStream to hold the CSV data
-        // This is like a container in memory where we'll write the CSV content
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-        // Step 4: Create a CSVWriter that will format our data as CSV
-        // OutputStreamWriter converts the stream to a writer that CSVWriter can use
-        // StandardCharsets.UTF_8 ensures the file can handle special characters
-        try (CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
-
-            // Step 5: Write the header row (column names)
-            // This is the first row in the CSV that describes what each column contains
-            String[] header = { "Date", "Type", "Category", "Amount", "Description" };
-            csvWriter.writeNext(header);
-
-            // Step 6: Loop through each transaction and write it as a row
-            for (Transaction transaction : transactions) {
-                // Create an array of strings representing each column value
-                String[] row = {
-                        // Format the date using our date formatter (e.g., "05/01/2026")
-                        transaction.getTransactionDate().format(DATE_FORMATTER),
-                        // Get the transaction type (income or expense)
-                        // toString() converts the enum to a string
-                        transaction.getType().toString(),
-                        // Get the category (e.g., "Food", "Salary", etc.)
-                        transaction.getCategory(),
-                        // Convert the amount (BigDecimal) to a string for CSV
-                        transaction.getAmount().toString(),
-                        // Get the description, or empty string if null
-                        // The ternary operator (condition ? valueIfTrue : valueIfFalse) handles null
-                        // values
-                        transaction.getDescription() != null ? transaction.getDescription() : ""
-                };
-                // Write this row to the CSV
-                csvWriter.writeNext(row);
+    /**
+     * Writes a newline-delimited JSON file (one transaction object per line)
+     * containing the user's transactions to the given output stream.
+     * 
+     * Each line has the same fields as the transactions returned by
+     * GET /api/user/transactions, which makes it easy for scripts to read
+     * one record at a time. Like the CSV export it is streamed from a
+     * database cursor.
+     * 
+     * @param userId The ID of the user whose transactions to export
+     * @param filter Date range and type of the transactions to include
+     * @param out    The stream to write to (e.g. the HTTP response body); it is
+     *               flushed but not closed
+     */
+    public void writeNdjson(Integer userId, ExportFilter filter, OutputStream out) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Flushing after every line would defeat the buffering (and compression)
+        ObjectWriter lineWriter = objectMapper.writerFor(TransactionResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Transaction> transactions = streamTransactions(userId, filter);
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // The caller owns the stream, and lines are separated by \n rather than a space
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                Iterator<Transaction> iterator = transactions.iterator();
+                while (iterator.hasNext()) {
+                    Transaction transaction = iterator.next();
+                    lineWriter.writeValue(generator, TransactionResponse.from(transaction));
+                    generator.writeRaw('\n');
+                    entityManager.detach(transaction);
+                }
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        });
+    }
+
+    /**
+     * Writes the export in the given format. The gzip formats are compressed
+     * at export.gzip-level while they are written, so the compressed file is
+     * never held in memory either.
+     */
+    public void write(Integer userId, ExportFormat format, ExportFilter filter, OutputStream out)
+            throws IOException {
+        if (!format.isGzip()) {
+            writeUncompressed(userId, format, filter, out);
+            return;
+        }
+        LevelGzipOutputStream gzip = new LevelGzipOutputStream(out, gzipLevel);
+        try {
+            writeUncompressed(userId, format, filter, gzip);
+            gzip.finishWithoutClosing();
+        } finally {
+            // A failed export gets no gzip trailer, but the native deflater is freed either way
+            gzip.release();
+        }
+    }
+
+    private void writeUncompressed(Integer userId, ExportFormat format, ExportFilter filter, OutputStream out) {
+        switch (format) {
+            case csv, csv_gz -> writeCsv(userId, filter, out);
+            case ndjson, ndjson_gz -> writeNdjson(userId, filter, out);
+            case pdf -> writePdf(userId, filter, out);
         }
+    }
 
-        // Step 7: Convert the ByteArrayOutputStream to a byte array and return
-        // This byte array can be sent directly to the client as a file download
-        return outputStream.toByteArray();
+    /**
+     * Whether the user has anything to export with this filter. Used to
+     * answer with a 404 before a streaming export starts writing.
+     */
+    public boolean hasTransactions(Integer userId, ExportFilter filter) {
+        return transactionRepository.countTransactionsWithFilters(
+                userId, filter.fromDate(), filter.toDate(), filter.type()) > 0;
+    }
+
+    private Stream<Transaction> streamTransactions(Integer userId, ExportFilter filter) {
+        return transactionRepository.streamForExport(userId, filter.fromDate(), filter.toDate(), filter.type());
+    }
+
+    private String[] toCsvRow(Transaction transaction) {
+        // Create an array of strings representing each column value
+        return new String[] {
+                // Format the date using our date formatter (e.g., "05/01/2026")
+                transaction.getTransactionDate().format(DATE_FORMATTER),
+                // Get the transaction type (income or expense)
+                transaction.getType().toString(),
+                // Get the category (e.g., "Food", "Salary", etc.)
+                transaction.getCategory(),
+                // Convert the amount (BigDecimal) to a string for CSV
+                transaction.getAmount().toString(),
+                // Get the description, or empty string if null
+                transaction.getDescription() != null ? transaction.getDescription() : ""
+        };
     }
 
     /**
-     * Generates a PDF report containing all transactions for a user.
+     * Writes a PDF report containing all transactions for a user to the given
+     * output stream.
      * 
      * PDF (Portable Document Format) creates a nicely formatted document with:
      * - A title and generation date
@@ -127,129 +255,154 @@ public class ExportService {
      * iText provides classes like Document, Table, Cell, Paragraph to build PDF
      * content.
      * 
+     * The table is created as an iText "large table": it is added to the
+     * document before its rows, and every PDF_FLUSH_ROWS rows the finished
+     * part is laid out, written to the stream and released. Together with
+     * the streamed query this keeps memory use flat for any number of
+     * transactions. The summary totals are added up in the same pass.
+     * 
      * @param userId The ID of the user whose transactions to export
-     * @return byte[] The PDF file content as bytes (ready to be sent as a download)
-     * @throws Exception If no transactions found or any error occurs during
-     *                   generation
+     * @param filter Date range and type of the transactions to include
+     * @param out    The stream to write to (e.g. the HTTP response body); it is
+     *               flushed but not closed
      */
-    public byte[] generatePdf(Integer userId) throws Exception {
-        // Step 1: Fetch all transactions for this user from the database
-        List<Transaction> transactions = transactionRepository.findByUserIdOrderByTransactionDateDesc(userId);
-
-        // Step 2: Check if user has any transactions
-        if (transactions == null || transactions.isEmpty()) {
-            throw new Exception("No transactions found");
-        }
-
-        // Step 3: Create a ByteArrayOutputStream to hold the PDF data
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-        // Step 4: Create PDF document objects
-        // PdfWriter writes the PDF content to our output stream
-        PdfWriter pdfWriter = new PdfWriter(outputStream);
-        // PdfDocument is the core PDF object that manages pages and content
-        PdfDocument pdfDocument = new PdfDocument(pdfWriter);
-        // Document is a high-level wrapper that makes it easier to add content
-        Document document = new Document(pdfDocument);
-
-        // Step 5: Add the title "Transaction Report" centered at the top
-        // Paragraph is a text element, like a paragraph in a word document
-        // setFontSize() sets the text size, setTextAlignment() centers it
-        Paragraph title = new Paragraph("Transaction Report")
-                .setFontSize(20)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setBold();
-        document.add(title);
-
-        // Step 6: Add the generation date below the title
-        // LocalDate.now() gets today's date, format() converts it to a readable string
-        Paragraph date = new Paragraph("Generated on: " + LocalDate.now().format(DATE_FORMATTER))
-                .setFontSize(10)
-                .setTextAlignment(TextAlignment.CENTER);
-        document.add(date);
-
-        // Add some space before the table
-        document.add(new Paragraph("\n"));
-
-        // Step 7: Create a table with 5 columns (one for each field)
-        // UnitValue.createPercentArray() sets the relative width of each column
-        // The numbers represent percentages: Date(15%), Type(12%), Category(20%),
-        // Amount(18%), Description(35%)
-        Table table = new Table(UnitValue.createPercentArray(new float[] { 15, 12, 20, 18, 35 }));
-        // Make the table span the full width of the page
-        table.setWidth(UnitValue.createPercentValue(100));
-
-        // Step 8: Add table headers with gray background
-        // addHeaderCell() is a helper method defined below that creates styled header
-        // cells
-        addHeaderCell(table, "Date");
-        addHeaderCell(table, "Type");
-        addHeaderCell(table, "Category");
-        addHeaderCell(table, "Amount");
-        addHeaderCell(table, "Description");
-
-        // Step 9: Initialize totals for the summary section
-        // BigDecimal is used for precise decimal arithmetic (important for money!)
-        BigDecimal totalIncome = BigDecimal.ZERO;
-        BigDecimal totalExpense = BigDecimal.ZERO;
-
-        // Step 10: Add each transaction as a row in the table
-        for (Transaction transaction : transactions) {
-            // Add cells for each column
-            table.addCell(new Cell().add(new Paragraph(transaction.getTransactionDate().format(DATE_FORMATTER))));
-
-            // Capitalize the first letter of type for better display
-            // "income" becomes "Income", "expense" becomes "Expense"
-            String type = transaction.getType().toString();
-            String formattedType = type.substring(0, 1).toUpperCase() + type.substring(1).toLowerCase();
-            table.addCell(new Cell().add(new Paragraph(formattedType)));
-
-            table.addCell(new Cell().add(new Paragraph(transaction.getCategory())));
-
-            // Format amount with Rs prefix (Indian Rupee)
-            // setScale(2) ensures exactly 2 decimal places
-            table.addCell(new Cell().add(new Paragraph("Rs " + transaction.getAmount().setScale(2))));
-
-            // Handle null description
-            String description = transaction.getDescription() != null ? transaction.getDescription() : "";
-            // Truncate long descriptions to 50 characters
-            if (description.length() > 50) {
-                description = description.substring(0, 50) + "...";
+    public void writePdf(Integer userId, ExportFilter filter, OutputStream out) {
+        // Step 1: Open a read-only transaction; the cursor only lives as long as it does
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            // Step 2: Create PDF document objects
+            // PdfWriter writes the PDF content to our output stream
+            PdfWriter pdfWriter = new PdfWriter(out);
+            // The caller owns the output stream, so closing the document must not close it
+            pdfWriter.setCloseStream(false);
+            // PdfDocument is the core PDF object that manages pages and content
+            PdfDocument pdfDocument = new PdfDocument(pdfWriter);
+            // Document is a high-level wrapper that makes it easier to add content
+            Document document = new Document(pdfDocument);
+
+            // Step 3: Add the title "Transaction Report" centered at the top
+            // Paragraph is a text element, like a paragraph in a word document
+            // setFontSize() sets the text size, setTextAlignment() centers it
+            Paragraph title = new Paragraph("Transaction Report")
+                    .setFontSize(20)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setBold();
+            document.add(title);
+
+            // Step 4: Add the generation date below the title
+            // LocalDate.now() gets today's date, format() converts it to a readable string
+            Paragraph date = new Paragraph("Generated on: " + LocalDate.now().format(DATE_FORMATTER))
+                    .setFontSize(10)
+                    .setTextAlignment(TextAlignment.CENTER);
+            document.add(date);
+
+            // Add some space before the table
+            document.add(new Paragraph("\n"));
+
+            // Step 5: Create a large table with 5 columns (one for each field)
+            // UnitValue.createPercentArray() sets the relative width of each column
+            // The numbers represent percentages: Date(15%), Type(12%), Category(20%),
+            // Amount(18%), Description(35%)
+            // The second argument (true) lets the table be written out in parts
+            Table table = new Table(UnitValue.createPercentArray(new float[] { 15, 12, 20, 18, 35 }), true);
+            // Make the table span the full width of the page
+            table.setWidth(UnitValue.createPercentValue(100));
+
+            // Step 6: Add table headers with gray background
+            // addHeaderCell() is a helper method defined below that creates styled header
+            // cells
+            addHeaderCell(table, "Date");
+            addHeaderCell(table, "Type");
+            addHeaderCell(table, "Category");
+            addHeaderCell(table, "Amount");
+            addHeaderCell(table, "Description");
+
+            // A large table is added to the document first and filled in afterwards
+            document.add(table);
+
+            // Step 7: Initialize totals for the summary section
+            // Exact totals in long cents, without a new BigDecimal per row
+            CentsAccumulator totalIncome = CentsAccumulator.zero();
+            CentsAccumulator totalExpense = CentsAccumulator.zero();
+            int rows = 0;
+
+            // Step 8: Add each transaction as a row in the table, reading them as a stream
+            try (Stream<Transaction> transactions = streamTransactions(userId, filter)) {
+                Iterator<Transaction> iterator = transactions.iterator();
+                while (iterator.hasNext()) {
+                    Transaction transaction = iterator.next();
+                    addRow(table, transaction);
+
+                    // Update totals based on transaction type
+                    if (transaction.getType() == Transaction.TransactionType.income) {
+                        totalIncome.plus(transaction.getAmount());
+                    } else {
+                        totalExpense.plus(transaction.getAmount());
+                    }
+
+                    // The row has been copied into the table, so the entity can go
+                    entityManager.detach(transaction);
+
+                    // Write out the finished rows every PDF_FLUSH_ROWS rows
+                    if (++rows % PDF_FLUSH_ROWS == 0) {
+                        table.flush();
+                    }
+                }
             }
-            table.addCell(new Cell().add(new Paragraph(description)));
-
-            // Step 11: Update totals based on transaction type
-            if (transaction.getType() == Transaction.TransactionType.income) {
-                totalIncome = totalIncome.add(transaction.getAmount());
-            } else {
-                totalExpense = totalExpense.add(transaction.getAmount());
-            }
-        }
 
-        // Add the table to the document
-        document.add(table);
+            // Step 9: Tell iText that no more rows are coming so it can finish the table
+            table.complete();
 
-        // Step 12: Add summary section with totals
-        document.add(new Paragraph("\n"));
+            // Step 10: Add summary section with totals
+            document.add(new Paragraph("\n"));
 
-        Paragraph summaryTitle = new Paragraph("Summary")
-                .setFontSize(14)
-                .setBold();
-        document.add(summaryTitle);
+            Paragraph summaryTitle = new Paragraph("Summary")
+                    .setFontSize(14)
+                    .setBold();
+            document.add(summaryTitle);
 
-        // Calculate balance (income - expense)
-        BigDecimal balance = totalIncome.subtract(totalExpense);
+            // Calculate balance (income - expense)
+            CentsAccumulator balance = totalIncome.copy().minus(totalExpense);
 
-        // Add total income, expense, and balance
-        document.add(new Paragraph("Total Income: Rs " + totalIncome.setScale(2)));
-        document.add(new Paragraph("Total Expense: Rs " + totalExpense.setScale(2)));
-        document.add(new Paragraph("Balance: Rs " + balance.setScale(2)).setBold());
+            // Add total income, expense, and balance
+            document.add(new Paragraph("Total Income: Rs " + totalIncome));
+            document.add(new Paragraph("Total Expense: Rs " + totalExpense));
+            document.add(new Paragraph("Balance: Rs " + balance).setBold());
 
-        // Step 13: Close the document and return the byte array
-        // Closing the document finalizes the PDF and flushes all content to the stream
-        document.close();
+            // Step 11: Close the document
+            // Closing the document finalizes the PDF and flushes all content to the stream
+            document.close();
+        });
+    }
 
-        return outputStream.toByteArray();
+    /**
+     * Adds one transaction as a row of five cells to the PDF table.
+     */
+    private void addRow(Table table, Transaction transaction) {
+        // Add cells for each column
+        table.addCell(new Cell().add(new Paragraph(transaction.getTransactionDate().format(DATE_FORMATTER))));
+
+        // Capitalize the first letter of type for better display
+        // "income" becomes "Income", "expense" becomes "Expense"
+        String type = transaction.getType().toString();
+        String formattedType = type.substring(0, 1).toUpperCase() + type.substring(1).toLowerCase();
+        table.addCell(new Cell().add(new Paragraph(formattedType)));
+
+        table.addCell(new Cell().add(new Paragraph(transaction.getCategory())));
+
+        // Format amount with Rs prefix (Indian Rupee)
+        // setScale(2) ensures exactly 2 decimal places
+        table.addCell(new Cell().add(new Paragraph("Rs " + transaction.getAmount().setScale(2))));
+
+        // Handle null description
+        String description = transaction.getDescription() != null ? transaction.getDescription() : "";
+        // Truncate long descriptions to 50 characters
+        if (description.length() > 50) {
+            description = description.substring(0, 50) + "...";
+        }
+        table.addCell(new Cell().add(new Paragraph(description)));
     }
 
     /**
@@ -273,4 +426,27 @@ public class ExportService {
                 .setPadding(5);
         table.addCell(cell);
     }
+
+    /**
+     * GZIPOutputStream with a configurable compression level that can be
+     * finished without closing the stream underneath. The deflater is only
+     * freed by release(), which must always be called.
+     */
+    private static class LevelGzipOutputStream extends GZIPOutputStream {
+        LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(level);
+        }
+
+        // Writes the gzip trailer
+        void finishWithoutClosing() throws IOException {
+            finish();
+            out.flush();
+        }
+
+        // Frees the native deflater
+        void release() {
+            def.end();
+        }
+    }
 }
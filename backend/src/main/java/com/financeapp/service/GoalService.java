@@ -1,5 +1,6 @@
 package com.financeapp.service;
 
+import com.financeapp.dto.GoalResponse;
 import com.financeapp.model.Goal;
 import com.financeapp.repository.GoalRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,7 +48,7 @@ public class GoalService {
         Goal saved = goalRepository.save(goal);
         
         Map<String, Object> result = new HashMap<>();
-        result.put("goal", convertToMap(saved));
+        result.put("goal", GoalResponse.from(saved));
         result.put("message", "Goal created");
         return result;
     }
@@ -92,7 +93,7 @@ public class GoalService {
         Goal updated = goalRepository.save(goal);
         
         Map<String, Object> result = new HashMap<>();
-        result.put("goal", convertToMap(updated));
+        result.put("goal", GoalResponse.from(updated));
         result.put("message", "Goal updated");
         return result;
     }
@@ -107,20 +108,5 @@ public class GoalService {
         
         goalRepository.delete(goal);
     }
-    
-    private Map<String, Object> convertToMap(Goal goal) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", goal.getId());
-        map.put("user_id", goal.getUserId());
-        map.put("title", goal.getTitle());
-        map.put("description", goal.getDescription());
-        map.put("target_amount", goal.getTargetAmount());
-        map.put("saved_amount", goal.getSavedAmount());
-        map.put("target_date", goal.getTargetDate() != null ? goal.getTargetDate().toString() : null);
-        map.put("status", goal.getStatus().toString());
-        map.put("created_at", goal.getCreatedAt());
-        map.put("updated_at", goal.getUpdatedAt());
-        return map;
-    }
 }
 
@@ -0,0 +1,224 @@
+package com.financeapp.service;
+
+import com.financeapp.model.BatchCheckpoint;
+import com.financeapp.repository.BatchCheckpointRepository;
+import com.financeapp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly run of notification generation for every user, so users who
+ * don't write transactions still get budget and goal reminders.
+ *
+ * Users are read in id order, notifications.batch.chunk-size at a time
+ * (keyset paging), and the chunks are processed on a pool of
+ * notifications.batch.threads workers, each user in its own database
+ * transaction (NotificationService opens it and locks the user's row, so a
+ * run of NotificationScheduler for the same user waits instead of adding
+ * duplicates). A user that fails is retried once at the end of its chunk;
+ * if it fails again it is logged with its id and left for its next
+ * transaction write or the next night.
+ *
+ * Chunks finish in any order, but the checkpoint only moves past a chunk
+ * once it and all chunks before it are done, so it is a contiguous
+ * watermark: after a crash or restart the run resumes after it (at startup,
+ * or at the next trigger). A chunk that fails as a whole stops the run
+ * with the checkpoint before it, so the next trigger processes it again;
+ * a message a user already got in the last 24 hours is not added again.
+ *
+ * Meant for a single application node; it only guards against overlapping
+ * runs within one process.
+ */
+@Service
+public class NotificationBatchService {
+
+    private static final String JOB_NAME = "nightly-notifications";
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BatchCheckpointRepository checkpointRepository;
+
+    @Value("${notifications.batch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notifications.batch.chunk-size:1000}")
+    private int chunkSize;
+
+    private final int threads;
+
+    // Pages through the users and keeps the checkpoint; the workers do the generation
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor();
+
+    private final ThreadPoolExecutor workers;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // result: number of users that failed
+    private record Chunk(int firstUserId, int lastUserId, int size, Future<Integer> result) {
+    }
+
+    public NotificationBatchService(@Value("${notifications.batch.threads:4}") int threads) {
+        this.threads = threads;
+        // The coordinator never has more than threads * 2 chunks queued, so the queue stays small
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Scheduled(cron = "${notifications.batch.cron:0 0 2 * * *}")
+    public void runNightly() {
+        start();
+    }
+
+    /**
+     * Continues a run that was interrupted by a shutdown or crash.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        checkpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> !checkpoint.getCompleted())
+                .ifPresent(checkpoint -> start());
+    }
+
+    /**
+     * Starts (or resumes) a run in the background.
+     *
+     * @return false if a run is already in progress or the job is disabled
+     */
+    public boolean start() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            coordinator.execute(() -> {
+                try {
+                    run();
+                } catch (Exception e) {
+                    System.err.println("Nightly notification run stopped: " + e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            return false;
+        }
+        return true;
+    }
+
+    private void run() throws InterruptedException {
+        BatchCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint == null || checkpoint.getCompleted()) {
+            checkpoint = new BatchCheckpoint(JOB_NAME, LocalDateTime.now(), 0, false, null);
+            checkpoint = checkpointRepository.save(checkpoint);
+            System.out.println("Nightly notification run started");
+        } else {
+            System.out.println("Nightly notification run resumed after user " + checkpoint.getLastUserId()
+                    + " (started " + checkpoint.getStartedAt() + ")");
+        }
+
+        long startedNanos = System.nanoTime();
+        long users = 0;
+        long failedUsers = 0;
+
+        Deque<Chunk> inFlight = new ArrayDeque<>();
+        int afterUserId = checkpoint.getLastUserId();
+        boolean allRead = false;
+        try {
+            while (true) {
+                // Keep the workers busy without reading every user id up front
+                while (!allRead && inFlight.size() < threads * 2) {
+                    List<Integer> userIds = userRepository.findIdsAfter(afterUserId, chunkSize);
+                    if (userIds.isEmpty()) {
+                        allRead = true;
+                        break;
+                    }
+                    afterUserId = userIds.get(userIds.size() - 1);
+                    inFlight.add(new Chunk(userIds.get(0), afterUserId, userIds.size(),
+                            workers.submit(() -> processChunk(userIds))));
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+
+                // Wait for the oldest chunk, so the watermark never skips an unfinished one
+                Chunk chunk = inFlight.poll();
+                int failed;
+                try {
+                    failed = chunk.result().get();
+                } catch (ExecutionException e) {
+                    // Left incomplete: the next trigger resumes at this chunk
+                    System.err.println("Nightly notification run stopped at users " + chunk.firstUserId() + "-"
+                            + chunk.lastUserId() + ": " + e.getCause().getMessage());
+                    return;
+                }
+                users += chunk.size();
+                failedUsers += failed;
+                checkpoint.setLastUserId(chunk.lastUserId());
+                checkpoint = checkpointRepository.save(checkpoint);
+            }
+        } finally {
+            inFlight.forEach(chunk -> chunk.result().cancel(true));
+        }
+
+        checkpoint.setCompleted(true);
+        checkpointRepository.save(checkpoint);
+        System.out.println("Nightly notification run finished: " + users + " users, " + failedUsers
+                + " failed, " + Duration.ofNanos(System.nanoTime() - startedNanos).toSeconds() + "s");
+    }
+
+    /**
+     * Generates the notifications of one chunk of users, each user in its own
+     * transaction, retrying the failed ones once.
+     *
+     * @return number of users that failed twice
+     */
+    private int processChunk(List<Integer> userIds) {
+        List<Integer> failed = generate(userIds, false);
+        if (!failed.isEmpty()) {
+            failed = generate(failed, true);
+        }
+        return failed.size();
+    }
+
+    private List<Integer> generate(List<Integer> userIds, boolean retry) {
+        List<Integer> failed = new ArrayList<>();
+        for (Integer userId : userIds) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException("Interrupted");
+            }
+            try {
+                notificationService.generateNotificationsForUser(userId);
+            } catch (Exception e) {
+                failed.add(userId);
+                if (retry) {
+                    System.err.println("Nightly notifications failed for user " + userId + ": " + e.getMessage());
+                }
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,117 @@
+package com.financeapp.service;
+
+import com.financeapp.repository.NotificationRepository;
+import com.financeapp.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps only the newest notifications.retention.keep notifications of each
+ * user.
+ *
+ * Instead of trimming after every generation run, users that got new
+ * notifications are marked, and every notifications.retention.sweep-interval-ms
+ * only the marked users are trimmed, notifications.retention.batch-size users
+ * per DELETE in its own transaction. Marks are kept in memory, so a nightly
+ * full sweep (notifications.retention.full-sweep-cron) walks all users with
+ * notifications in id order and catches anything missed across a restart.
+ */
+@Service
+public class NotificationRetentionService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${notifications.retention.keep:5}")
+    private int keep;
+
+    @Value("${notifications.retention.batch-size:500}")
+    private int batchSize;
+
+    // Users with notifications inserted since their last trim
+    private final Set<Integer> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Marks the user for the next sweep once the current transaction commits,
+     * so the sweep sees the new notifications.
+     */
+    public void markDirty(Integer userId) {
+        AfterCommit.run(() -> dirtyUsers.add(userId));
+    }
+
+    /**
+     * Trims the users marked since the last sweep.
+     *
+     * @return number of notifications deleted
+     */
+    @Scheduled(fixedDelayString = "${notifications.retention.sweep-interval-ms:60000}")
+    public long sweepDirty() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        long deleted = 0;
+
+        while (!dirtyUsers.isEmpty()) {
+            List<Integer> userIds = new ArrayList<>(batchSize);
+            Iterator<Integer> iterator = dirtyUsers.iterator();
+            while (iterator.hasNext() && userIds.size() < batchSize) {
+                // Removed first: an insert from now on marks the user again
+                userIds.add(iterator.next());
+                iterator.remove();
+            }
+            try {
+                Integer batchDeleted = template.execute(status ->
+                        notificationRepository.deleteAllButNewestOf(userIds, keep));
+                deleted += batchDeleted != null ? batchDeleted : 0;
+            } catch (Exception e) {
+                // Retried at the next sweep
+                dirtyUsers.addAll(userIds);
+                System.err.println("Error trimming notifications of " + userIds.size() + " users: " + e.getMessage());
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Trims every user that has notifications.
+     *
+     * @return number of notifications deleted
+     */
+    @Scheduled(cron = "${notifications.retention.full-sweep-cron:0 30 3 * * *}")
+    public long sweep() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        long deleted = 0;
+        int afterUserId = 0;
+
+        try {
+            while (true) {
+                List<Integer> userIds = notificationRepository.findUserIdsAfter(afterUserId, batchSize);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                int fromUserId = userIds.get(0);
+                int toUserId = userIds.get(userIds.size() - 1);
+                Integer batchDeleted = template.execute(status ->
+                        notificationRepository.deleteAllButNewest(fromUserId, toUserId, keep));
+                deleted += batchDeleted != null ? batchDeleted : 0;
+                afterUserId = toUserId;
+            }
+        } catch (Exception e) {
+            // The next sweep starts over, so a failed batch is retried then
+            System.err.println("Error trimming notifications after user " + afterUserId + ": " + e.getMessage());
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,122 @@
+package com.financeapp.service;
+
+import com.financeapp.util.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Regenerates users' notifications in the background after their
+ * transactions change.
+ *
+ * Requests are coalesced per user: a user's run starts
+ * notifications.generation.delay-ms after the first request, however many
+ * writes arrive in the meantime, and a user never has two runs at once.
+ * A request that arrives while the user's run is in progress schedules one
+ * more run, so the latest data is always looked at. Runs happen on a bounded
+ * pool; if it is full the request is dropped and the next write (or
+ * POST /api/user/notifications/generate) catches up.
+ *
+ * The number of users waiting for a run is published as the
+ * notifications.generation.pending gauge and the run times as the
+ * notifications.generation timer.
+ */
+@Service
+public class NotificationScheduler {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    private final long delayMs;
+
+    // Only waits out the delay and hands the run to the pool
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    private final ThreadPoolExecutor executor;
+
+    // Users with a run scheduled or queued that hasn't started yet
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    private final Set<Integer> running = ConcurrentHashMap.newKeySet();
+
+    private final Timer runTimer;
+
+    public NotificationScheduler(
+            @Value("${notifications.generation.delay-ms:2000}") long delayMs,
+            @Value("${notifications.generation.pool-size:2}") int poolSize,
+            @Value("${notifications.generation.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.delayMs = delayMs;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("notifications.generation.pending", pending, Set::size)
+                .description("Users waiting for their notifications to be regenerated")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("notifications.generation")
+                .description("Time to regenerate the notifications of one user")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Asks for the user's notifications to be regenerated. Inside a database
+     * transaction the request is only made once it commits, so the run sees
+     * the change (and a rolled back change asks for nothing).
+     */
+    public void requestGeneration(Integer userId) {
+        AfterCommit.run(() -> schedule(userId));
+    }
+
+    private void schedule(Integer userId) {
+        // Already scheduled: this request is covered by that run
+        if (!pending.add(userId)) {
+            return;
+        }
+        try {
+            timer.schedule(() -> submit(userId), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            pending.remove(userId);
+        }
+    }
+
+    private void submit(Integer userId) {
+        if (running.contains(userId)) {
+            // Try again once the current run is likely done
+            timer.schedule(() -> submit(userId), delayMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+        try {
+            executor.execute(() -> run(userId));
+        } catch (RejectedExecutionException e) {
+            pending.remove(userId);
+            System.err.println("Notification generation queue is full, skipped user " + userId);
+        }
+    }
+
+    private void run(Integer userId) {
+        running.add(userId);
+        // From here on a new request needs a new run; this one may not see its change
+        pending.remove(userId);
+        try {
+            runTimer.record(() -> notificationService.generateNotificationsForUser(userId));
+        } catch (Exception e) {
+            System.err.println("Error generating notifications for user " + userId + ": " + e.getMessage());
+        } finally {
+            running.remove(userId);
+        }
+    }
+}
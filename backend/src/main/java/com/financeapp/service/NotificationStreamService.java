@@ -0,0 +1,291 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.NotificationResponse;
+import com.financeapp.model.Notification;
+import com.financeapp.repository.NotificationRepository;
+import com.financeapp.util.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open Server-Sent Events connections of GET /api/user/notifications/stream.
+ *
+ * Each connection is an async request (SseEmitter): between events it holds
+ * no request thread, only the socket, so thousands of idle connections
+ * don't need thousands of threads. New notifications are pushed to all of
+ * the user's connections after they commit, with the notification id as the
+ * event id. A reconnecting client sends the last id it saw (Last-Event-ID)
+ * and first gets the notifications it missed. A comment line is sent every
+ * notifications.stream.heartbeat-ms so proxies keep idle connections open
+ * and dead ones are noticed.
+ *
+ * Events are never sent on the caller's thread. Each connection has its own
+ * queue, drained by a pool of notifications.stream.send-threads, so a slow
+ * client only holds up its own events. A write that makes no progress for
+ * notifications.stream.send-timeout-ms fails (it is Tomcat's socket write
+ * timeout, server.tomcat.connection-timeout), which frees the sender thread
+ * and closes the connection. A connection with more than MAX_PENDING events
+ * waiting is dropped too. The client then reconnects and catches up from its
+ * last event id.
+ *
+ * Connections are capped per node (notifications.stream.max-connections,
+ * open ones are the notifications.stream.connections gauge) and per user
+ * (notifications.stream.max-per-user).
+ */
+@Service
+public class NotificationStreamService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final int maxConnections;
+
+    @Value("${notifications.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.stream.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    // Events waiting for one connection
+    private static final int MAX_PENDING = 100;
+
+    private final Map<Integer, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor();
+
+    private final ThreadPoolExecutor sender;
+
+    private static final class Connection {
+        final Integer userId;
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendingCount = new AtomicInteger();
+        // Set while a sender thread owns the connection; whoever sets it last after a drop closes it
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean dropped;
+
+        Connection(Integer userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+
+    public NotificationStreamService(
+            @Value("${notifications.stream.send-threads:4}") int sendThreads,
+            @Value("${notifications.stream.max-connections:5000}") int maxConnections,
+            MeterRegistry meterRegistry) {
+        this.maxConnections = maxConnections;
+        // Each connection has at most one drain task queued or running
+        this.sender = new ThreadPoolExecutor(sendThreads, sendThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxConnections));
+
+        Gauge.builder("notifications.stream.connections", connections, AtomicInteger::get)
+                .description("Open notification streams on this node")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startHeartbeat() {
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        connectionsByUser.values().forEach(set -> set.forEach(connection -> connection.emitter.complete()));
+    }
+
+    /**
+     * Opens a stream for the user.
+     *
+     * @param lastEventId Id of the last notification the client received, or null
+     * @throws RuntimeException if the node or the user has too many open streams
+     */
+    public SseEmitter connect(Integer userId, Integer lastEventId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new RuntimeException("Too many open notification streams, please try again later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter);
+        try {
+            connectionsByUser.compute(userId, (id, set) -> {
+                Set<Connection> userConnections = set != null ? set : ConcurrentHashMap.newKeySet();
+                if (userConnections.size() >= maxPerUser) {
+                    throw new RuntimeException("Too many open notification streams for this user");
+                }
+                userConnections.add(connection);
+                return userConnections;
+            });
+        } catch (RuntimeException e) {
+            connections.decrementAndGet();
+            throw e;
+        }
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        // Registered first, so nothing created meanwhile is missed (it may come twice; ids tell).
+        // At most 50 are replayed; retention keeps far fewer anyway.
+        List<SseEmitter.SseEventBuilder> initial = new ArrayList<>();
+        if (lastEventId != null) {
+            for (Notification notification : notificationRepository
+                    .findTop50ByUserIdAndIdGreaterThanOrderByIdAsc(userId, lastEventId)) {
+                initial.add(event(notification));
+            }
+        } else {
+            // Sends the response headers right away, so the client sees the stream is open
+            initial.add(SseEmitter.event().comment("connected"));
+        }
+        enqueue(connection, initial);
+        return emitter;
+    }
+
+    /**
+     * Queues new notifications for the user's open streams once the current
+     * database transaction commits (right away if there is none).
+     */
+    public void publish(Integer userId, List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        List<Notification> created = List.copyOf(notifications);
+        AfterCommit.run(() -> {
+            Set<Connection> userConnections = connectionsByUser.get(userId);
+            if (userConnections == null) {
+                return;
+            }
+            for (Connection connection : userConnections) {
+                // An event builder can only be sent once, so each connection gets its own
+                enqueue(connection, created.stream().map(NotificationStreamService::event).toList());
+            }
+        });
+    }
+
+    private void sendHeartbeats() {
+        connectionsByUser.values().forEach(set -> set.forEach(connection -> {
+            // A connection that is still sending doesn't need one
+            if (connection.pendingCount.get() == 0 && !connection.draining.get()) {
+                enqueue(connection, List.of(SseEmitter.event().comment("heartbeat")));
+            }
+        }));
+    }
+
+    private void enqueue(Connection connection, List<SseEmitter.SseEventBuilder> events) {
+        if (connection.dropped) {
+            return;
+        }
+        if (connection.pendingCount.addAndGet(events.size()) > MAX_PENDING) {
+            drop(connection, new IOException("Client is not keeping up"));
+            return;
+        }
+        connection.pending.addAll(events);
+        drain(connection);
+    }
+
+    private void drain(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            // The running drain task picks the events up
+            return;
+        }
+        try {
+            sender.execute(() -> send(connection));
+        } catch (RejectedExecutionException e) {
+            connection.draining.set(false);
+            drop(connection, new IOException("Notification stream send queue is full"));
+        }
+    }
+
+    private void send(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!connection.dropped && (event = connection.pending.poll()) != null) {
+                connection.pendingCount.decrementAndGet();
+                connection.emitter.send(event);
+            }
+        } catch (Exception e) {
+            // The client went away, or stopped reading and the write timed out
+            drop(connection, e);
+        }
+        connection.draining.set(false);
+        if (connection.dropped) {
+            close(connection, null);
+        } else if (!connection.pending.isEmpty()) {
+            // Queued after the last poll
+            drain(connection);
+        }
+    }
+
+    /**
+     * Stops sending to the connection and closes it, right away if no send
+     * is in progress, otherwise as soon as that send returns.
+     */
+    private void drop(Connection connection, Throwable reason) {
+        connection.dropped = true;
+        remove(connection);
+        close(connection, reason);
+    }
+
+    private void close(Connection connection, Throwable reason) {
+        // Only when no sender thread is writing to it; draining then stays set for good
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                connection.emitter.completeWithError(
+                        reason != null ? reason : new IOException("Notification stream dropped"));
+            } catch (Exception e) {
+                // Already completed
+            }
+        }
+    }
+
+    private void remove(Connection connection) {
+        connection.dropped = true;
+        boolean[] removed = new boolean[1];
+        connectionsByUser.computeIfPresent(connection.userId, (id, set) -> {
+            removed[0] = set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+        // Completion, timeout and error callbacks can all fire for one emitter; count it once
+        if (removed[0]) {
+            connections.decrementAndGet();
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(Notification notification) {
+        return SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name("notification")
+                .data(NotificationResponse.from(notification));
+    }
+}
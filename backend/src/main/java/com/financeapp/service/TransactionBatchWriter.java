@@ -0,0 +1,86 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserts many new transactions of one user in a single database transaction.
+ *
+ * Transaction ids are IDENTITY generated, which stops Hibernate from batching
+ * inserts, so imports go through plain JDBC batches of import.batch-size rows
+ * instead (rewriteBatchedStatements on the JDBC URL turns each batch into one
+ * multi-row INSERT). The rollup, data version, analytics cache and columnar
+ * store are updated in the same transaction, the same way the single
+ * TransactionService write methods do it.
+ */
+@Component
+public class TransactionBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions "
+            + "(user_id, type, category, amount, reference, description, transaction_date, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionRollupService rollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AnalyticsCache analyticsCache;
+
+    @Autowired
+    private ColumnarTransactionStore columnarStore;
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Inserts the transactions; either all of them are stored or none are.
+     * Their ids are not read back.
+     */
+    public void write(Integer userId, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Locks the user's row first (see TransactionRollupService)
+            userRepository.incrementDataVersion(userId);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_SQL, transactions, batchSize, (ps, transaction) -> {
+                ps.setInt(1, userId);
+                ps.setString(2, transaction.getType().name());
+                ps.setString(3, transaction.getCategory());
+                ps.setBigDecimal(4, transaction.getAmount());
+                ps.setString(5, transaction.getReference());
+                ps.setString(6, transaction.getDescription());
+                ps.setDate(7, Date.valueOf(transaction.getTransactionDate()));
+                ps.setTimestamp(8, now);
+                ps.setTimestamp(9, now);
+            });
+
+            rollupService.addAll(userId, transactions);
+            // A chunk touches many days, so drop everything cached for the user
+            analyticsCache.invalidateUser(userId);
+            columnarStore.invalidateUser(userId);
+        });
+    }
+}
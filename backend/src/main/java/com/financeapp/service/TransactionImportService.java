@@ -0,0 +1,582 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.ImportFormat;
+import com.financeapp.dto.ImportReport;
+import com.financeapp.dto.StatementEntry;
+import com.financeapp.model.Transaction;
+import com.financeapp.util.AiService;
+import com.financeapp.util.AmountUtil;
+import com.financeapp.util.OfxStatementReader;
+import com.financeapp.util.QifStatementReader;
+import com.financeapp.util.StatementReader;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Imports transactions in bulk from an uploaded file.
+ *
+ * CSV uploads are copied to a temporary file and memory-mapped. The file is
+ * split into segments of about import.parallel.segment-bytes that end at a
+ * line break (outside quoted values), and the segments are parsed and
+ * validated in parallel on a fork-join pool. A single writer takes the
+ * parsed segments in file order, collects the rows into chunks of
+ * import.chunk-size and stores every chunk with TransactionBatchWriter in its
+ * own database transaction. Rows without a category are categorized per
+ * chunk (each distinct description once). Invalid rows and failed chunks are
+ * reported per row instead of failing the whole import.
+ *
+ * OFX and QIF statements are read one transaction at a time with a
+ * StatementReader and written in chunks like CSV rows.
+ */
+@Service
+public class TransactionImportService {
+
+    // The format written by the CSV export
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Size of the mapped windows used to find segment boundaries
+    private static final long SCAN_WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    // Descriptions are TEXT (at most 64 KB), so a longer quoted value means a quote was never closed
+    private static final int MAX_QUOTED_BYTES = 64 * 1024;
+
+    @Autowired
+    private TransactionBatchWriter batchWriter;
+
+    @Autowired
+    private AiService aiService;
+
+    @Autowired
+    private NotificationScheduler notificationScheduler;
+
+    @Value("${import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${import.parallel.segment-bytes:4194304}")
+    private long segmentBytes;
+
+    private final ForkJoinPool parsePool;
+
+    public TransactionImportService(@Value("${import.parallel.threads:0}") int threads) {
+        // 0 means one parser per core
+        this.parsePool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdownNow();
+    }
+
+    /**
+     * Imports an uploaded file in any of the supported formats.
+     *
+     * @param format csv, ofx or qif; guessed from the file name when null
+     */
+    public ImportReport importFile(Integer userId, MultipartFile file, String format) throws IOException {
+        ImportFormat importFormat = ImportFormat.of(format, file.getOriginalFilename());
+        if (importFormat == ImportFormat.csv) {
+            return importCsv(userId, file);
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            return importStatement(userId, importFormat == ImportFormat.ofx
+                    ? new OfxStatementReader(reader)
+                    : new QifStatementReader(reader));
+        }
+    }
+
+    /**
+     * Imports an uploaded CSV file; see importCsv(Integer, Path).
+     */
+    public ImportReport importCsv(Integer userId, MultipartFile file) throws IOException {
+        Path spooled = Files.createTempFile("transactions-import-", ".csv");
+        try {
+            file.transferTo(spooled);
+            return importCsv(userId, spooled);
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    /**
+     * Imports a CSV file with a header row. The columns date (or
+     * transaction_date), type and amount are required; category, description
+     * and reference are optional. Column names are case-insensitive, so a
+     * file from the CSV export can be imported again as it is.
+     *
+     * @param userId The ID of the user the transactions belong to
+     * @param file   The CSV file (UTF-8)
+     * @return How many rows were imported and the errors of the rows that weren't
+     */
+    public ImportReport importCsv(Integer userId, Path file) throws IOException {
+        ImportReport report = new ImportReport(maxErrors);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new RuntimeException("The file is empty");
+            }
+
+            long headerEnd = findHeaderEnd(channel, size);
+            CsvColumns columns = CsvColumns.of(readHeader(channel, headerEnd));
+            List<Segment> segments = split(channel, headerEnd, size, segmentBytes);
+
+            // Parse a few segments ahead of the writer, but not the whole file at once
+            int maxInFlight = parsePool.getParallelism() * 2;
+            Deque<ForkJoinTask<ParsedSegment>> inFlight = new ArrayDeque<>();
+            Iterator<Segment> pending = segments.iterator();
+
+            List<Transaction> chunk = new ArrayList<>(chunkSize);
+            List<Long> chunkRows = new ArrayList<>(chunkSize);
+            try {
+                while (pending.hasNext() || !inFlight.isEmpty()) {
+                    while (pending.hasNext() && inFlight.size() < maxInFlight) {
+                        Segment segment = pending.next();
+                        inFlight.add(parsePool.submit(() -> parseSegment(userId, columns, channel, segment)));
+                    }
+
+                    // Segments are written in file order, whichever finished parsing first
+                    ParsedSegment parsed = inFlight.poll().join();
+                    if (parsed.failure != null) {
+                        Segment segment = parsed.segment;
+                        report.rowsFailed(segment.firstLine(), segment.firstLine() + segment.lineCount() - 1,
+                                (int) segment.lineCount(), "Could not read these lines: " + parsed.failure);
+                    }
+                    for (RowError error : parsed.errors) {
+                        report.rowFailed(error.row(), error.message());
+                    }
+                    for (int i = 0; i < parsed.transactions.size(); i++) {
+                        chunk.add(parsed.transactions.get(i));
+                        chunkRows.add(parsed.rows.get(i));
+                        if (chunk.size() >= chunkSize) {
+                            writeChunk(userId, chunk, chunkRows, report);
+                            chunk.clear();
+                            chunkRows.clear();
+                        }
+                    }
+                }
+                writeChunk(userId, chunk, chunkRows, report);
+            } finally {
+                inFlight.forEach(task -> task.cancel(true));
+            }
+        }
+
+        finishImport(userId, report);
+        return report;
+    }
+
+    /**
+     * Imports the transactions of a bank statement. They are read one at a
+     * time and written in chunks, like CSV rows. Money going out becomes an
+     * expense and money coming in an income.
+     */
+    public ImportReport importStatement(Integer userId, StatementReader reader) throws IOException {
+        ImportReport report = new ImportReport(maxErrors);
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRows = new ArrayList<>(chunkSize);
+
+        while (true) {
+            StatementEntry entry;
+            try {
+                entry = reader.next();
+                if (entry == null) {
+                    break;
+                }
+                chunk.add(toTransaction(userId, entry.date(),
+                        entry.amount().signum() < 0 ? Transaction.TransactionType.expense
+                                : Transaction.TransactionType.income,
+                        entry.category(), entry.amount().abs(), entry.description(), entry.reference()));
+                chunkRows.add(reader.getRecordLine());
+            } catch (RuntimeException e) {
+                report.rowFailed(reader.getRecordLine(), e.getMessage());
+            }
+
+            if (chunk.size() >= chunkSize) {
+                writeChunk(userId, chunk, chunkRows, report);
+                chunk.clear();
+                chunkRows.clear();
+            }
+        }
+        writeChunk(userId, chunk, chunkRows, report);
+
+        finishImport(userId, report);
+        return report;
+    }
+
+    /**
+     * Parses and validates one segment of the file. Runs on the parse pool;
+     * it only reads the file, all writes happen on the calling thread.
+     */
+    private ParsedSegment parseSegment(Integer userId, CsvColumns columns, FileChannel channel, Segment segment) {
+        ParsedSegment parsed = new ParsedSegment(segment);
+        if (segment.malformed()) {
+            parsed.errors.add(new RowError(segment.firstLine(), "Unclosed quote in this row"));
+            return parsed;
+        }
+        try {
+            // Segments end at a line break, so they never split a UTF-8 character
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, segment.start(), segment.length());
+            CSVReader reader = new CSVReader(new StringReader(StandardCharsets.UTF_8.decode(bytes).toString()));
+
+            String[] values;
+            while ((values = reader.readNext()) != null) {
+                // Line number of this row in the file (a quoted value can span lines)
+                long row = segment.firstLine() - 1 + reader.getLinesRead();
+                if (values.length == 1 && values[0].isBlank()) {
+                    continue;
+                }
+                try {
+                    parsed.transactions.add(columns.toTransaction(this, userId, values));
+                    parsed.rows.add(row);
+                } catch (RuntimeException e) {
+                    parsed.errors.add(new RowError(row, e.getMessage()));
+                }
+            }
+        } catch (IOException | CsvValidationException e) {
+            // e.g. an unclosed quote; the whole segment is reported as one error
+            parsed.transactions.clear();
+            parsed.rows.clear();
+            parsed.errors.clear();
+            parsed.failure = e.getMessage();
+        }
+        return parsed;
+    }
+
+    /**
+     * Finds the end (exclusive, after the line break) of the header row.
+     */
+    private static long findHeaderEnd(FileChannel channel, long size) throws IOException {
+        int length = (int) Math.min(size, MAX_HEADER_BYTES);
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        boolean inQuotes = false;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes.get(i);
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                return i + 1;
+            }
+        }
+        if (size > MAX_HEADER_BYTES) {
+            throw new RuntimeException("The header row is too long");
+        }
+        return size;
+    }
+
+    private static String[] readHeader(FileChannel channel, long headerEnd) throws IOException {
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerEnd);
+        try {
+            String[] header = new CSVReader(new StringReader(StandardCharsets.UTF_8.decode(bytes).toString()))
+                    .readNext();
+            if (header == null) {
+                throw new RuntimeException("The file is empty");
+            }
+            return header;
+        } catch (CsvValidationException e) {
+            throw new RuntimeException("Invalid header row: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits the rows after the header into segments of at least
+     * segmentBytes that end at a line break outside a quoted value. This is a
+     * single pass over the bytes that only counts quotes and line breaks,
+     * which is far cheaper than parsing, so it doesn't hold the parsers back.
+     *
+     * A row whose quoted value runs on for more than MAX_QUOTED_BYTES is taken
+     * to have an unclosed quote: the row up to the end of the line that quote
+     * is on becomes a segment of its own that is reported as a failed row, and
+     * scanning starts over after it. Otherwise one stray quote would make the
+     * rest of the file a single segment.
+     */
+    static List<Segment> split(FileChannel channel, long from, long size, long segmentBytes) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        long segmentStart = from;
+        // The header is line 1
+        long line = 2;
+        long segmentFirstLine = line;
+        boolean inQuotes = false;
+        // Start of the current row, and the first line break after the last opening quote
+        long rowStart = from;
+        long rowLine = line;
+        long openBreak = -1;
+        long openBreakLine = -1;
+
+        MappedByteBuffer window = null;
+        long windowStart = 0;
+        long pos = from;
+        while (pos < size) {
+            if (window == null || pos < windowStart || pos >= windowStart + window.capacity()) {
+                windowStart = pos;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                        Math.min(SCAN_WINDOW_BYTES, size - windowStart));
+            }
+            byte b = window.get((int) (pos - windowStart));
+            pos++;
+
+            if (b == '"') {
+                // An escaped quote ("") flips twice, so this still tracks quoted values
+                inQuotes = !inQuotes;
+                if (inQuotes) {
+                    openBreak = -1;
+                }
+            } else if (b == '\n') {
+                line++;
+                if (!inQuotes) {
+                    rowStart = pos;
+                    rowLine = line;
+                    if (pos - segmentStart >= segmentBytes) {
+                        segments.add(new Segment(segmentStart, pos - segmentStart, segmentFirstLine,
+                                line - segmentFirstLine, false));
+                        segmentStart = pos;
+                        segmentFirstLine = line;
+                    }
+                    continue;
+                }
+                if (openBreak < 0) {
+                    openBreak = pos;
+                    openBreakLine = line;
+                }
+                if (pos - rowStart > MAX_QUOTED_BYTES) {
+                    // Unclosed quote: cut out the row up to the end of the quote's line and go on after it
+                    if (rowStart > segmentStart) {
+                        segments.add(new Segment(segmentStart, rowStart - segmentStart, segmentFirstLine,
+                                rowLine - segmentFirstLine, false));
+                    }
+                    segments.add(new Segment(rowStart, openBreak - rowStart, rowLine, openBreakLine - rowLine, true));
+                    pos = openBreak;
+                    line = openBreakLine;
+                    rowStart = pos;
+                    rowLine = line;
+                    segmentStart = pos;
+                    segmentFirstLine = line;
+                    inQuotes = false;
+                }
+            }
+        }
+        if (segmentStart < size) {
+            // The last line may not end with a line break; then it is one more line
+            boolean endsWithBreak = window.get((int) (size - 1 - windowStart)) == '\n';
+            segments.add(new Segment(segmentStart, size - segmentStart, segmentFirstLine,
+                    line - segmentFirstLine + (endsWithBreak ? 0 : 1), false));
+        }
+        return segments;
+    }
+
+    /**
+     * Validates the values of one imported row and turns them into a new,
+     * unsaved transaction. A missing category is left null when there is a
+     * description to categorize it from.
+     *
+     * @throws RuntimeException with a message for the user if a value is invalid
+     */
+    public Transaction toTransaction(Integer userId, String date, String type, String category,
+            String amount, String description, String reference) {
+        if (date == null || date.isEmpty()) {
+            throw new RuntimeException("Date is required");
+        }
+        if (type == null || type.isEmpty()) {
+            throw new RuntimeException("Type is required");
+        }
+        if (amount == null || amount.isEmpty()) {
+            throw new RuntimeException("Amount is required");
+        }
+        return toTransaction(userId, parseDate(date), parseType(type), category, parseAmount(amount),
+                description, reference);
+    }
+
+    /**
+     * Same as above, for values that have already been parsed.
+     */
+    public Transaction toTransaction(Integer userId, LocalDate date, Transaction.TransactionType type,
+            String category, BigDecimal amount, String description, String reference) {
+        Transaction transaction = new Transaction();
+        transaction.setUserId(userId);
+        transaction.setTransactionDate(date);
+        transaction.setType(type);
+        transaction.setAmount(AmountUtil.check(amount));
+
+        if (category != null && category.length() > 100) {
+            throw new RuntimeException("Category can be at most 100 characters");
+        }
+        if (reference != null && reference.length() > 255) {
+            throw new RuntimeException("Reference can be at most 255 characters");
+        }
+        if ((category == null || category.isEmpty()) && (description == null || description.isEmpty())) {
+            throw new RuntimeException(
+                    "Category is required. Please provide a description for AI categorization or enter category manually.");
+        }
+        transaction.setCategory(category == null || category.isEmpty() ? null : category);
+        transaction.setDescription(description == null || description.isEmpty() ? null : description);
+        transaction.setReference(reference == null || reference.isEmpty() ? null : reference);
+        return transaction;
+    }
+
+    /**
+     * Categorizes the rows of a chunk that have no category and stores the
+     * chunk. If storing fails, none of its rows are imported and they are
+     * reported as one error.
+     *
+     * @param rows The file row (or line) number of each transaction, for the report
+     */
+    void writeChunk(Integer userId, List<Transaction> chunk, List<Long> rows, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        categorize(chunk);
+        try {
+            batchWriter.write(userId, chunk);
+            report.rowsImported(chunk.size());
+        } catch (Exception e) {
+            System.err.println("Error importing transactions for user " + userId + ": " + e.getMessage());
+            report.rowsFailed(rows.get(0), rows.get(rows.size() - 1), chunk.size(), "Could not save these rows");
+        }
+    }
+
+    /**
+     * Regenerates the user's notifications once, after the whole import,
+     * instead of once per transaction.
+     */
+    void finishImport(Integer userId, ImportReport report) {
+        if (report.getImported() > 0) {
+            notificationScheduler.requestGeneration(userId);
+        }
+    }
+
+    private void categorize(List<Transaction> chunk) {
+        List<String> descriptions = new ArrayList<>();
+        for (Transaction transaction : chunk) {
+            if (transaction.getCategory() == null) {
+                descriptions.add(transaction.getDescription());
+            }
+        }
+        if (descriptions.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> categories;
+        try {
+            categories = aiService.getCategoriesFromAI(descriptions);
+        } catch (Exception e) {
+            categories = Collections.emptyMap();
+        }
+        for (Transaction transaction : chunk) {
+            if (transaction.getCategory() == null) {
+                String category = categories.get(transaction.getDescription());
+                // Same fallback as a single transaction whose categorization fails
+                if (category == null || category.isEmpty()) {
+                    category = transaction.getType() == Transaction.TransactionType.expense ? "Other" : "Income";
+                }
+                transaction.setCategory(category);
+            }
+        }
+    }
+
+    private static String value(String[] values, Integer column) {
+        if (column == null || column >= values.length) {
+            return null;
+        }
+        return values[column].trim();
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return date.contains("/") ? LocalDate.parse(date, EXPORT_DATE_FORMAT) : LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid date: " + date + " (use yyyy-MM-dd or dd/MM/yyyy)");
+        }
+    }
+
+    private static Transaction.TransactionType parseType(String type) {
+        try {
+            return Transaction.TransactionType.valueOf(type.toLowerCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid type: " + type + " (use income or expense)");
+        }
+    }
+
+    private static BigDecimal parseAmount(String amount) {
+        try {
+            return new BigDecimal(amount);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid amount: " + amount);
+        }
+    }
+
+    /**
+     * @param malformed a single line with an unclosed quote, reported without parsing
+     */
+    record Segment(long start, long length, long firstLine, long lineCount, boolean malformed) {
+    }
+
+    private record RowError(long row, String message) {
+    }
+
+    private static final class ParsedSegment {
+        final Segment segment;
+        final List<Transaction> transactions = new ArrayList<>();
+        final List<Long> rows = new ArrayList<>();
+        final List<RowError> errors = new ArrayList<>();
+        String failure;
+
+        ParsedSegment(Segment segment) {
+            this.segment = segment;
+        }
+    }
+
+    /**
+     * Positions of the known columns in the header row (null when absent).
+     */
+    private record CsvColumns(Integer date, Integer type, Integer amount, Integer category,
+            Integer description, Integer reference) {
+
+        static CsvColumns of(String[] header) {
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                // Files saved by Excel start with a byte order mark
+                String name = i == 0 ? header[i].replace("\uFEFF", "") : header[i];
+                columns.put(name.trim().toLowerCase(), i);
+            }
+            Integer date = columns.containsKey("date") ? columns.get("date") : columns.get("transaction_date");
+            if (date == null || !columns.containsKey("type") || !columns.containsKey("amount")) {
+                throw new RuntimeException("The header row must contain the columns date, type and amount");
+            }
+            return new CsvColumns(date, columns.get("type"), columns.get("amount"), columns.get("category"),
+                    columns.get("description"), columns.get("reference"));
+        }
+
+        Transaction toTransaction(TransactionImportService service, Integer userId, String[] values) {
+            return service.toTransaction(userId, value(values, date), value(values, type),
+                    value(values, category), value(values, amount), value(values, description),
+                    value(values, reference));
+        }
+    }
+}
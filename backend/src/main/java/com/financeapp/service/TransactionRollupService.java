@@ -0,0 +1,132 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import com.financeapp.repository.TransactionDailyRollupRepository;
+import com.financeapp.repository.UserRepository;
+import com.financeapp.util.CentsAccumulator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Maintains the transaction_daily_rollup table.
+ *
+ * Write methods in TransactionService call add/remove in the same database
+ * transaction as the change to the transactions table, so the rollup never
+ * drifts from the raw rows. rebuildAll() recomputes everything from scratch
+ * (the initial backfill is done by migration V2).
+ *
+ * Writers bump the user's data_version before touching the transactions or
+ * the rollup, which locks the user's row; the rebuild locks the rows of its
+ * users first as well. So a rebuild and a live write for the same user run
+ * one after the other, and the rebuild can run while the application serves
+ * requests.
+ */
+@Service
+public class TransactionRollupService {
+
+    @Autowired
+    private TransactionDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${rollup.rebuild.chunk-size:500}")
+    private int rebuildChunkSize;
+
+    @Value("${rollup.rebuild.threads:4}")
+    private int rebuildThreads;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Transaction transaction) {
+        applyDelta(transaction.getUserId(), transaction.getTransactionDate(), transaction.getType(),
+                transaction.getCategory(), transaction.getAmount(), 1);
+    }
+
+    /**
+     * Adds many new transactions at once, e.g. an import chunk. Rows that
+     * share a (day, type, category) are summed first, so there is one upsert
+     * per rollup row instead of one per transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(Integer userId, Collection<Transaction> transactions) {
+        Map<TransactionDailyRollup.RollupKey, CentsAccumulator> amounts = new HashMap<>();
+        Map<TransactionDailyRollup.RollupKey, Integer> counts = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            TransactionDailyRollup.RollupKey key = new TransactionDailyRollup.RollupKey(userId,
+                    transaction.getTransactionDate(), transaction.getType(), transaction.getCategory());
+            amounts.computeIfAbsent(key, k -> CentsAccumulator.zero()).plus(transaction.getAmount());
+            counts.merge(key, 1, Integer::sum);
+        }
+        amounts.forEach((key, amount) -> applyDelta(userId, key.getDay(), key.getType(), key.getCategory(),
+                amount.toBigDecimal(), counts.get(key)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Integer userId, LocalDate day, Transaction.TransactionType type,
+            String category, BigDecimal amount) {
+        applyDelta(userId, day, type, category, amount.negate(), -1);
+        rollupRepository.deleteIfEmpty(userId, day, type.name(), category);
+    }
+
+    private void applyDelta(Integer userId, LocalDate day, Transaction.TransactionType type,
+            String category, BigDecimal amount, int count) {
+        rollupRepository.applyDelta(userId, day, type.name(), category, amount, count);
+    }
+
+    /**
+     * Recomputes the rollup for every user from the transactions table.
+     *
+     * Users are split into id ranges of rollup.rebuild.chunk-size and each range
+     * is rebuilt (lock users + delete + INSERT ... SELECT ... GROUP BY) in its
+     * own transaction on a pool of rollup.rebuild.threads workers.
+     *
+     * @return number of rollup rows written
+     */
+    public long rebuildAll() throws Exception {
+        int maxUserId = userRepository.findMaxId();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (int from = 1; from <= maxUserId; from += rebuildChunkSize) {
+                int fromUserId = from;
+                int toUserId = Math.min(from + rebuildChunkSize - 1, maxUserId);
+                chunks.add(executor.submit(() -> template.execute(status -> {
+                    // Waits for in-flight writes of these users and holds off new ones until commit
+                    userRepository.lockIdsBetween(fromUserId, toUserId);
+                    rollupRepository.deleteForUserRange(fromUserId, toUserId);
+                    return rollupRepository.rebuildForUserRange(fromUserId, toUserId);
+                })));
+            }
+
+            long rows = 0;
+            for (Future<Integer> chunk : chunks) {
+                rows += chunk.get();
+            }
+            return rows;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
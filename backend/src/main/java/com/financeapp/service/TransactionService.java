@@ -1,31 +1,66 @@
 package com.financeapp.service;
 
+import com.financeapp.dto.CategoryAggregate;
+import com.financeapp.dto.TransactionListResponse;
+import com.financeapp.dto.TransactionResponse;
 import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import com.financeapp.repository.TransactionDailyRollupRepository;
 import com.financeapp.repository.TransactionRepository;
+import com.financeapp.repository.UserRepository;
 import com.financeapp.util.AiService;
+import com.financeapp.util.AmountUtil;
 import com.financeapp.util.DateFilterUtil;
+import com.financeapp.util.CentsAccumulator;
+import com.financeapp.util.TransactionCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 
 @Service
 public class TransactionService {
 
+    // A daily series over ten years; longer ranges need a coarser interval
+    private static final int MAX_TIME_SERIES_BUCKETS = 3660;
+
+    // Largest page of the cursor mode
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionRollupService rollupService;
+
+    @Autowired
+    private AnalyticsCache analyticsCache;
+
+    @Autowired
+    private ColumnarTransactionStore columnarStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private AiService aiService;
 
     @Autowired
-    private NotificationService notificationService;
+    private NotificationScheduler notificationScheduler;
 
+    @Transactional
     public Map<String, Object> createTransaction(Integer userId, Map<String, Object> request) {
         Object amountObj = request.get("amount");
         Object typeObj = request.get("type");
@@ -34,7 +69,7 @@ public class TransactionService {
             throw new RuntimeException("Amount and type are required");
         }
 
-        BigDecimal amount = new BigDecimal(amountObj.toString());
+        BigDecimal amount = AmountUtil.parse(amountObj);
         Transaction.TransactionType type = Transaction.TransactionType.valueOf(typeObj.toString().toLowerCase());
 
         String category = (String) request.get("category");
@@ -73,13 +108,18 @@ public class TransactionService {
         transaction.setDescription(description);
         transaction.setTransactionDate(transactionDate);
 
+        // Locks the user's row first (see TransactionRollupService)
+        userRepository.incrementDataVersion(userId);
         Transaction saved = transactionRepository.save(transaction);
+        rollupService.add(saved);
+        columnarStore.put(saved);
+        analyticsCache.invalidate(userId, saved.getTransactionDate(), saved.getType());
 
-        // Generate notifications asynchronously
-        generateNotificationsAsync(userId);
+        // Regenerate notifications in the background once this commits
+        notificationScheduler.requestGeneration(userId);
 
         Map<String, Object> result = new HashMap<>();
-        result.put("data", convertToMap(saved));
+        result.put("data", TransactionResponse.from(saved));
         if (aiCategoryUsed) {
             result.put("aiCategory", finalCategory);
         }
@@ -87,16 +127,8 @@ public class TransactionService {
         return result;
     }
 
-    @Async
-    private void generateNotificationsAsync(Integer userId) {
-        try {
-            notificationService.generateNotificationsForUser(userId);
-        } catch (Exception e) {
-            System.err.println("Error generating notifications after transaction creation: " + e.getMessage());
-        }
-    }
 
-    public Map<String, Object> getTransactions(Integer userId, String frequency, String type,
+    public TransactionListResponse getTransactions(Integer userId, String frequency, String type,
             String startDate, String endDate, Pageable pageable) {
         Map<String, LocalDate> dateFilters = DateFilterUtil.parseDateFilters(frequency, startDate, endDate);
         LocalDate fromDate = dateFilters.get("fromDate");
@@ -110,17 +142,62 @@ public class TransactionService {
         Page<Transaction> page = transactionRepository.findTransactionsWithFilters(
                 userId, fromDate, toDate, transactionType, pageable);
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("transactions", page.getContent().stream().map(this::convertToMap).toList());
+        return TransactionListResponse.of(
+                page.getContent().stream().map(TransactionResponse::from).toList(),
+                new TransactionListResponse.OffsetPagination(
+                        page.getTotalElements(), page.getNumber() + 1, page.getSize(), page.getTotalPages()));
+    }
 
-        Map<String, Object> pagination = new HashMap<>();
-        pagination.put("total", page.getTotalElements());
-        pagination.put("page", page.getNumber() + 1);
-        pagination.put("pageSize", page.getSize());
-        pagination.put("totalPages", page.getTotalPages());
-        result.put("pagination", pagination);
+    /**
+     * Cursor based variant of getTransactions. Each page seeks past the last
+     * row of the previous one instead of skipping an offset, and the total
+     * count is only queried when includeTotal is set.
+     */
+    public TransactionListResponse getTransactionsByCursor(Integer userId, String frequency, String type,
+            String startDate, String endDate, String cursor, int pageSize, boolean includeTotal) {
+        pageSize = clampPageSize(pageSize);
+        Map<String, LocalDate> dateFilters = DateFilterUtil.parseDateFilters(frequency, startDate, endDate);
+        LocalDate fromDate = dateFilters.get("fromDate");
+        LocalDate toDate = dateFilters.get("toDate");
 
-        return result;
+        Transaction.TransactionType transactionType = null;
+        if (type != null && !type.equals("all")) {
+            transactionType = Transaction.TransactionType.valueOf(type.toLowerCase());
+        }
+
+        TransactionCursor after = cursor == null || cursor.isEmpty() ? null : TransactionCursor.decode(cursor);
+
+        // Fetch one extra row to find out whether there is a next page
+        List<Transaction> rows = transactionRepository.findTransactionsAfterCursor(
+                userId, fromDate, toDate, transactionType,
+                after != null ? after.transactionDate() : null,
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new TransactionCursor(last.getTransactionDate(), last.getCreatedAt(), last.getId()).encode();
+        }
+        Long total = includeTotal
+                ? transactionRepository.countTransactionsWithFilters(userId, fromDate, toDate, transactionType)
+                : null;
+
+        return TransactionListResponse.of(
+                pageRows.stream().map(TransactionResponse::from).toList(),
+                new TransactionListResponse.CursorPagination(pageSize, hasMore, nextCursor, total));
+    }
+
+    /**
+     * Cursor page size limited to 1..MAX_PAGE_SIZE. The legacy offset mode
+     * is not clamped, so existing clients asking for larger pages still get them.
+     */
+    static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
     }
 
     public Map<String, Object> getAnalytics(Integer userId, String frequency, String type,
@@ -134,67 +211,48 @@ public class TransactionService {
             transactionType = Transaction.TransactionType.valueOf(type.toLowerCase());
         }
 
-        List<Transaction> transactions = transactionRepository.findTransactionsForAnalytics(
-                userId, fromDate, toDate, transactionType);
-
-        BigDecimal totalIncome = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.income)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalExpense = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.expense)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        AnalyticsCache.Key key = new AnalyticsCache.Key(userId, fromDate, toDate, transactionType);
+        return analyticsCache.get(key, k -> buildAnalytics(columnarStore.isEnabled()
+                ? columnarStore.aggregateByTypeAndCategory(k.userId(), k.fromDate(), k.toDate(), k.type())
+                : rollupRepository.aggregateByTypeAndCategory(k.userId(), k.fromDate(), k.toDate(), k.type())));
+    }
 
-        Map<String, Object> totals = new HashMap<>();
-        totals.put("totalTransactions", transactions.size());
-        totals.put("totalIncome", totalIncome);
-        totals.put("totalExpense", totalExpense);
-
-        // Category-wise stats for expenses
-        Map<String, CategoryStats> expenseCategoryMap = new HashMap<>();
-        for (Transaction t : transactions) {
-            if (t.getType() == Transaction.TransactionType.expense) {
-                expenseCategoryMap.computeIfAbsent(t.getCategory(), k -> new CategoryStats())
-                        .addAmount(t.getAmount(), 1);
+    /**
+     * The analytics response from grouped (type, category) totals.
+     */
+    static Map<String, Object> buildAnalytics(List<CategoryAggregate> aggregates) {
+        long totalTransactions = 0;
+        CentsAccumulator totalIncome = CentsAccumulator.zero();
+        CentsAccumulator totalExpense = CentsAccumulator.zero();
+        List<CategoryAggregate> expenseCategories = new ArrayList<>();
+        List<CategoryAggregate> incomeCategories = new ArrayList<>();
+
+        for (CategoryAggregate aggregate : aggregates) {
+            totalTransactions += aggregate.getTxnCount();
+            if (aggregate.getType() == Transaction.TransactionType.income) {
+                totalIncome.plus(aggregate.getTotalAmount());
+                incomeCategories.add(aggregate);
+            } else {
+                totalExpense.plus(aggregate.getTotalAmount());
+                expenseCategories.add(aggregate);
             }
         }
 
-        // Category-wise stats for income
-        Map<String, CategoryStats> incomeCategoryMap = new HashMap<>();
-        for (Transaction t : transactions) {
-            if (t.getType() == Transaction.TransactionType.income) {
-                incomeCategoryMap.computeIfAbsent(t.getCategory(), k -> new CategoryStats())
-                        .addAmount(t.getAmount(), 1);
-            }
-        }
+        // Totals stay a plain 0 when there is nothing of that type, as before
+        Map<String, Object> totals = new HashMap<>();
+        totals.put("totalTransactions", (int) totalTransactions);
+        totals.put("totalIncome", incomeCategories.isEmpty() ? BigDecimal.ZERO : totalIncome.toBigDecimal());
+        totals.put("totalExpense", expenseCategories.isEmpty() ? BigDecimal.ZERO : totalExpense.toBigDecimal());
 
-        List<Map<String, Object>> categories = new ArrayList<>();
+        Comparator<CategoryAggregate> byAmountDesc =
+                Comparator.comparing(CategoryAggregate::getTotalAmount).reversed();
+        expenseCategories.sort(byAmountDesc);
+        incomeCategories.sort(byAmountDesc);
 
-        // Add expense categories
-        expenseCategoryMap.entrySet().stream()
-                .sorted((a, b) -> b.getValue().totalAmount.compareTo(a.getValue().totalAmount))
-                .forEach(e -> {
-                    Map<String, Object> cat = new HashMap<>();
-                    cat.put("category", e.getKey());
-                    cat.put("type", "expense");
-                    cat.put("totalAmount", e.getValue().totalAmount);
-                    cat.put("count", e.getValue().count);
-                    categories.add(cat);
-                });
-
-        // Add income categories
-        incomeCategoryMap.entrySet().stream()
-                .sorted((a, b) -> b.getValue().totalAmount.compareTo(a.getValue().totalAmount))
-                .forEach(e -> {
-                    Map<String, Object> cat = new HashMap<>();
-                    cat.put("category", e.getKey());
-                    cat.put("type", "income");
-                    cat.put("totalAmount", e.getValue().totalAmount);
-                    cat.put("count", e.getValue().count);
-                    categories.add(cat);
-                });
+        // Expense categories first, then income categories
+        List<Map<String, Object>> categories = new ArrayList<>();
+        expenseCategories.forEach(a -> categories.add(convertCategoryToMap(a, "expense")));
+        incomeCategories.forEach(a -> categories.add(convertCategoryToMap(a, "income")));
 
         Map<String, Object> result = new HashMap<>();
         result.put("totals", totals);
@@ -203,16 +261,151 @@ public class TransactionService {
         return result;
     }
 
-    private static class CategoryStats {
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        int count = 0;
+    private static Map<String, Object> convertCategoryToMap(CategoryAggregate aggregate, String type) {
+        Map<String, Object> cat = new HashMap<>();
+        cat.put("category", aggregate.getCategory());
+        cat.put("type", type);
+        cat.put("totalAmount", aggregate.getTotalAmount());
+        cat.put("count", aggregate.getTxnCount().intValue());
+        return cat;
+    }
+
+    public Map<String, Object> getTimeSeries(Integer userId, String frequency, String type,
+            String startDate, String endDate, String interval, boolean byCategory) {
+        Map<String, LocalDate> dateFilters = DateFilterUtil.parseDateFilters(frequency, startDate, endDate);
+        LocalDate fromDate = dateFilters.get("fromDate");
+        LocalDate toDate = dateFilters.get("toDate");
+
+        Transaction.TransactionType transactionType = null;
+        if (type != null && !type.equals("all")) {
+            transactionType = Transaction.TransactionType.valueOf(type.toLowerCase());
+        }
+
+        if (!List.of("day", "week", "month").contains(interval)) {
+            throw new RuntimeException("Interval must be day, week or month");
+        }
+        // Checked before querying too, so an oversized custom range doesn't load any rows
+        checkBucketCount(fromDate, toDate, interval);
+
+        // One query over the daily rollup (or the columnar store); rows come back in day order
+        List<TransactionDailyRollup> rows = columnarStore.isEnabled()
+                ? columnarStore.findForRange(userId, fromDate, toDate, transactionType)
+                : rollupRepository.findForRange(userId, fromDate, toDate, transactionType);
+
+        // Without a date filter the series spans the user's first to last transaction
+        if (fromDate == null && !rows.isEmpty()) {
+            fromDate = rows.get(0).getDay();
+        }
+        if (toDate == null && !rows.isEmpty()) {
+            toDate = rows.get(rows.size() - 1).getDay();
+        }
+
+        checkBucketCount(fromDate, toDate, interval);
+
+        // Create every bucket up front so that empty periods are returned as zero
+        Map<LocalDate, TimeSeriesBucket> buckets = new LinkedHashMap<>();
+        if (fromDate != null && toDate != null) {
+            for (LocalDate start = bucketStart(fromDate, interval); !start.isAfter(toDate);
+                    start = nextBucketStart(start, interval)) {
+                buckets.put(start, new TimeSeriesBucket());
+            }
+        }
+
+        for (TransactionDailyRollup row : rows) {
+            TimeSeriesBucket bucket = buckets.get(bucketStart(row.getDay(), interval));
+            bucket.add(row, byCategory);
+        }
+
+        List<Map<String, Object>> series = new ArrayList<>();
+        buckets.forEach((start, bucket) -> series.add(bucket.toMap(start, byCategory)));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("interval", interval);
+        result.put("fromDate", fromDate != null ? fromDate.toString() : null);
+        result.put("toDate", toDate != null ? toDate.toString() : null);
+        result.put("series", series);
+        return result;
+    }
+
+    private void checkBucketCount(LocalDate fromDate, LocalDate toDate, String interval) {
+        if (fromDate == null || toDate == null || toDate.isBefore(fromDate)) {
+            return;
+        }
+        ChronoUnit unit = switch (interval) {
+            case "week" -> ChronoUnit.WEEKS;
+            case "month" -> ChronoUnit.MONTHS;
+            default -> ChronoUnit.DAYS;
+        };
+        long buckets = unit.between(bucketStart(fromDate, interval), toDate) + 1;
+        if (buckets > MAX_TIME_SERIES_BUCKETS) {
+            throw new RuntimeException("Date range is too long for interval " + interval
+                    + ", use a shorter range or a longer interval");
+        }
+    }
+
+    private LocalDate bucketStart(LocalDate day, String interval) {
+        return switch (interval) {
+            case "week" -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "month" -> day.withDayOfMonth(1);
+            default -> day;
+        };
+    }
+
+    private LocalDate nextBucketStart(LocalDate start, String interval) {
+        return switch (interval) {
+            case "week" -> start.plusWeeks(1);
+            case "month" -> start.plusMonths(1);
+            default -> start.plusDays(1);
+        };
+    }
 
-        void addAmount(BigDecimal amount, int cnt) {
-            totalAmount = totalAmount.add(amount);
-            count += cnt;
+    private static class TimeSeriesBucket {
+        CentsAccumulator income = CentsAccumulator.zero();
+        CentsAccumulator expense = CentsAccumulator.zero();
+        Map<String, CentsAccumulator> expenseByCategory = new HashMap<>();
+        Map<String, CentsAccumulator> incomeByCategory = new HashMap<>();
+
+        void add(TransactionDailyRollup row, boolean byCategory) {
+            boolean isIncome = row.getType() == Transaction.TransactionType.income;
+            long cents = CentsAccumulator.toCents(row.getTotalAmount());
+            (isIncome ? income : expense).plusCents(cents);
+            if (byCategory) {
+                (isIncome ? incomeByCategory : expenseByCategory)
+                        .computeIfAbsent(row.getCategory(), k -> CentsAccumulator.zero())
+                        .plusCents(cents);
+            }
+        }
+
+        Map<String, Object> toMap(LocalDate start, boolean byCategory) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("period", start.toString());
+            // Empty buckets keep serializing as 0 rather than 0.00
+            map.put("income", income.isZero() ? BigDecimal.ZERO : income.toBigDecimal());
+            map.put("expense", expense.isZero() ? BigDecimal.ZERO : expense.toBigDecimal());
+            if (byCategory) {
+                List<Map<String, Object>> categories = new ArrayList<>();
+                addCategories(categories, expenseByCategory, "expense");
+                addCategories(categories, incomeByCategory, "income");
+                map.put("categories", categories);
+            }
+            return map;
+        }
+
+        private static void addCategories(List<Map<String, Object>> categories,
+                Map<String, CentsAccumulator> totals, String type) {
+            totals.entrySet().stream()
+                    .sorted(Map.Entry.<String, CentsAccumulator>comparingByValue().reversed())
+                    .forEach(e -> {
+                        Map<String, Object> cat = new HashMap<>();
+                        cat.put("category", e.getKey());
+                        cat.put("type", type);
+                        cat.put("totalAmount", e.getValue().toBigDecimal());
+                        categories.add(cat);
+                    });
         }
     }
 
+    @Transactional
     public Map<String, Object> updateTransaction(Integer userId, Integer id, Map<String, Object> request) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
@@ -221,8 +414,16 @@ public class TransactionService {
             throw new RuntimeException("Unauthorized");
         }
 
+        // Locks the user's row first (see TransactionRollupService)
+        userRepository.incrementDataVersion(userId);
+
+        // Take the old values out of the rollup before they are overwritten
+        rollupService.remove(userId, transaction.getTransactionDate(), transaction.getType(),
+                transaction.getCategory(), transaction.getAmount());
+        analyticsCache.invalidate(userId, transaction.getTransactionDate(), transaction.getType());
+
         if (request.containsKey("amount")) {
-            transaction.setAmount(new BigDecimal(request.get("amount").toString()));
+            transaction.setAmount(AmountUtil.parse(request.get("amount")));
         }
         if (request.containsKey("type")) {
             transaction.setType(Transaction.TransactionType.valueOf(request.get("type").toString().toLowerCase()));
@@ -243,15 +444,19 @@ public class TransactionService {
         }
 
         Transaction updated = transactionRepository.save(transaction);
+        rollupService.add(updated);
+        columnarStore.put(updated);
+        analyticsCache.invalidate(userId, updated.getTransactionDate(), updated.getType());
 
-        // Generate notifications asynchronously
-        generateNotificationsAsync(userId);
+        // Regenerate notifications in the background once this commits
+        notificationScheduler.requestGeneration(userId);
 
         Map<String, Object> result = new HashMap<>();
-        result.put("data", convertToMap(updated));
+        result.put("data", TransactionResponse.from(updated));
         return result;
     }
 
+    @Transactional
     public void deleteTransaction(Integer userId, Integer id) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
@@ -260,24 +465,15 @@ public class TransactionService {
             throw new RuntimeException("Unauthorized");
         }
 
+        // Locks the user's row first (see TransactionRollupService)
+        userRepository.incrementDataVersion(userId);
         transactionRepository.delete(transaction);
+        rollupService.remove(userId, transaction.getTransactionDate(), transaction.getType(),
+                transaction.getCategory(), transaction.getAmount());
+        columnarStore.remove(userId, transaction.getId());
+        analyticsCache.invalidate(userId, transaction.getTransactionDate(), transaction.getType());
 
-        // Generate notifications asynchronously
-        generateNotificationsAsync(userId);
-    }
-
-    private Map<String, Object> convertToMap(Transaction transaction) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", transaction.getId());
-        map.put("user_id", transaction.getUserId());
-        map.put("type", transaction.getType().toString());
-        map.put("category", transaction.getCategory());
-        map.put("amount", transaction.getAmount());
-        map.put("reference", transaction.getReference());
-        map.put("description", transaction.getDescription());
-        map.put("transaction_date", transaction.getTransactionDate().toString());
-        map.put("created_at", transaction.getCreatedAt());
-        map.put("updated_at", transaction.getUpdatedAt());
-        return map;
+        // Regenerate notifications in the background once this commits
+        notificationScheduler.requestGeneration(userId);
     }
 }
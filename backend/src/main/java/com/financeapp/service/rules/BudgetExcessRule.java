@@ -0,0 +1,53 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Budget;
+import com.financeapp.model.Notification;
+import com.financeapp.repository.BudgetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warns about each budget whose category spending is more than 10% over it.
+ */
+@Component
+@Order(5)
+public class BudgetExcessRule implements NotificationRule {
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Override
+    public void register(RuleContext context) {
+        context.register(CategoryTotalsAccumulator.class, CategoryTotalsAccumulator::new);
+    }
+
+    @Override
+    public void evaluate(RuleContext context, List<Suggestion> suggestions) {
+        Map<String, BigDecimal> categoryTotals = context.get(CategoryTotalsAccumulator.class).getCategoryTotals();
+        for (Budget budget : budgetRepository.findByUserIdOrderByCategoryAsc(context.getUserId())) {
+            if (budget.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+            BigDecimal spent = categoryTotals.getOrDefault(budget.getCategory(), BigDecimal.ZERO);
+            BigDecimal excess = spent.subtract(budget.getAmount());
+            if (excess.compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+
+            double excessPercentage = excess.divide(budget.getAmount(), 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100")).doubleValue();
+            if (excessPercentage > 10) {
+                suggestions.add(new Suggestion(
+                    String.format("You've exceeded your budget for %s by %.1f%%.",
+                        budget.getCategory(), excessPercentage),
+                    Notification.NotificationType.warning));
+            }
+        }
+    }
+}
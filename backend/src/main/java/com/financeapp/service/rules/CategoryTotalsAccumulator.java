@@ -0,0 +1,38 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import com.financeapp.util.CentsAccumulator;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Expense totals of the period per category.
+ */
+public class CategoryTotalsAccumulator implements RollupAccumulator {
+
+    private final Map<String, CentsAccumulator> categorySums = new HashMap<>();
+
+    private Map<String, BigDecimal> categoryTotals;
+
+    @Override
+    public void accept(TransactionDailyRollup rollup) {
+        if (rollup.getType() == Transaction.TransactionType.expense) {
+            categorySums.computeIfAbsent(rollup.getCategory(), k -> CentsAccumulator.zero())
+                    .plus(rollup.getTotalAmount());
+        }
+    }
+
+    /**
+     * Only valid once all rows have been accepted.
+     */
+    public Map<String, BigDecimal> getCategoryTotals() {
+        if (categoryTotals == null) {
+            categoryTotals = new HashMap<>();
+            categorySums.forEach((category, sum) -> categoryTotals.put(category, sum.toBigDecimal()));
+        }
+        return categoryTotals;
+    }
+}
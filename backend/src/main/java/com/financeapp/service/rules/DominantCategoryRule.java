@@ -0,0 +1,59 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Notification;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Points out the category with the highest spending when it takes a large
+ * share of the expenses.
+ */
+@Component
+@Order(2)
+public class DominantCategoryRule implements NotificationRule {
+
+    private static final List<String> COMMON_CATEGORIES = Arrays.asList("Food", "Entertainment", "Shopping", "Transportation");
+
+    @Override
+    public void register(RuleContext context) {
+        context.register(TotalsAccumulator.class, TotalsAccumulator::new);
+        context.register(CategoryTotalsAccumulator.class, CategoryTotalsAccumulator::new);
+    }
+
+    @Override
+    public void evaluate(RuleContext context, List<Suggestion> suggestions) {
+        BigDecimal totalExpense = context.get(TotalsAccumulator.class).getTotalExpense();
+        Map<String, BigDecimal> categoryTotals = context.get(CategoryTotalsAccumulator.class).getCategoryTotals();
+        if (categoryTotals.isEmpty() || totalExpense.compareTo(BigDecimal.ZERO) <= 0) {
+            return;
+        }
+
+        String highestCategory = categoryTotals.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElse(null);
+        if (highestCategory == null) {
+            return;
+        }
+
+        BigDecimal categoryAmount = categoryTotals.get(highestCategory);
+        double categoryPercentage = categoryAmount.divide(totalExpense, 4, RoundingMode.HALF_UP)
+            .multiply(new BigDecimal("100")).doubleValue();
+
+        if (categoryPercentage > 40 && COMMON_CATEGORIES.contains(highestCategory)) {
+            suggestions.add(new Suggestion(
+                String.format("You are spending too much on %s. Consider reducing expenses in this category.", highestCategory),
+                Notification.NotificationType.warning));
+        } else if (categoryPercentage > 30 && totalExpense.compareTo(new BigDecimal("10000")) > 0) {
+            suggestions.add(new Suggestion(
+                String.format("Your spending on %s is high (%.1f%% of total expenses).", highestCategory, categoryPercentage),
+                Notification.NotificationType.tip));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Goal;
+import com.financeapp.model.Notification;
+import com.financeapp.repository.GoalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Nudges users who save well (over 15%) but whose active goals are less
+ * than half funded.
+ */
+@Component
+@Order(4)
+public class GoalProgressRule implements NotificationRule {
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Override
+    public void register(RuleContext context) {
+        context.register(TotalsAccumulator.class, TotalsAccumulator::new);
+    }
+
+    @Override
+    public void evaluate(RuleContext context, List<Suggestion> suggestions) {
+        List<Goal> activeGoals = goalRepository.findByUserIdAndStatus(context.getUserId(), Goal.GoalStatus.active);
+        if (activeGoals.isEmpty()) {
+            return;
+        }
+
+        BigDecimal totalGoalsAmount = BigDecimal.ZERO;
+        BigDecimal totalSavedForGoals = BigDecimal.ZERO;
+        for (Goal goal : activeGoals) {
+            totalGoalsAmount = totalGoalsAmount.add(goal.getTargetAmount());
+            totalSavedForGoals = totalSavedForGoals.add(goal.getSavedAmount());
+        }
+        if (totalGoalsAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            return;
+        }
+
+        double goalsProgress = totalSavedForGoals.divide(totalGoalsAmount, 4, RoundingMode.HALF_UP)
+            .multiply(new BigDecimal("100")).doubleValue();
+        if (goalsProgress < 50 && context.get(TotalsAccumulator.class).getSavingsRate() > 15) {
+            suggestions.add(new Suggestion(
+                "You have active goals. Consider allocating more savings towards them.",
+                Notification.NotificationType.info));
+        }
+    }
+}
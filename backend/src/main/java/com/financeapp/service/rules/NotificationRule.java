@@ -0,0 +1,23 @@
+package com.financeapp.service.rules;
+
+import java.util.List;
+
+/**
+ * One check of NotificationRuleEngine. Implementations are Spring components;
+ * they run in @Order order, which is also the order of their suggestions.
+ *
+ * A rule first registers the accumulators it reads (shared with any other
+ * rule registering the same type), then, after all rollup rows have gone
+ * through them, adds its suggestions.
+ */
+public interface NotificationRule {
+
+    /**
+     * Registers the accumulators this rule reads with
+     * {@link RuleContext#register}.
+     */
+    default void register(RuleContext context) {
+    }
+
+    void evaluate(RuleContext context, List<Suggestion> suggestions);
+}
@@ -0,0 +1,62 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.TransactionDailyRollup;
+import com.financeapp.repository.TransactionDailyRollupRepository;
+import com.financeapp.service.ColumnarTransactionStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Works out which notifications a user should get from the last 30 days of
+ * daily rollup rows.
+ *
+ * Every NotificationRule bean registers the accumulators it needs, then the
+ * rows are read once and each row is fed to all registered accumulators,
+ * and finally each rule adds its suggestions from the totals. A new rule is
+ * a new component; the scan loop doesn't change.
+ */
+@Component
+public class NotificationRuleEngine {
+
+    private static final int PERIOD_DAYS = 30;
+
+    @Autowired
+    private TransactionDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private ColumnarTransactionStore columnarStore;
+
+    // Sorted by @Order
+    @Autowired
+    private List<NotificationRule> rules;
+
+    public List<Suggestion> evaluate(Integer userId) {
+        LocalDate now = LocalDate.now();
+        RuleContext context = new RuleContext(userId, now.minusDays(PERIOD_DAYS), now);
+        for (NotificationRule rule : rules) {
+            rule.register(context);
+        }
+
+        // Get daily rollup rows for the period (one row per day, type and category)
+        List<TransactionDailyRollup> rollups = columnarStore.isEnabled()
+            ? columnarStore.findForRange(userId, context.getFromDate(), context.getToDate(), null)
+            : rollupRepository.findByUserIdAndDayBetween(userId, context.getFromDate(), context.getToDate());
+
+        RollupAccumulator[] accumulators = context.getAccumulators().toArray(new RollupAccumulator[0]);
+        for (TransactionDailyRollup rollup : rollups) {
+            for (RollupAccumulator accumulator : accumulators) {
+                accumulator.accept(rollup);
+            }
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (NotificationRule rule : rules) {
+            rule.evaluate(context, suggestions);
+        }
+        return suggestions;
+    }
+}
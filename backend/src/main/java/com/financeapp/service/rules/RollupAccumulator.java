@@ -0,0 +1,13 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.TransactionDailyRollup;
+
+/**
+ * Running totals over the daily rollup rows of the period a notification
+ * run looks at. NotificationRuleEngine feeds every row to every accumulator
+ * that some rule registered, in one pass over the rows.
+ */
+public interface RollupAccumulator {
+
+    void accept(TransactionDailyRollup rollup);
+}
@@ -0,0 +1,63 @@
+package com.financeapp.service.rules;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * State of one rule engine run for one user: the period looked at and the
+ * accumulators registered by the rules, one instance per type.
+ */
+public class RuleContext {
+
+    private final Integer userId;
+
+    private final LocalDate fromDate;
+
+    private final LocalDate toDate;
+
+    private final Map<Class<?>, RollupAccumulator> accumulators = new LinkedHashMap<>();
+
+    public RuleContext(Integer userId, LocalDate fromDate, LocalDate toDate) {
+        this.userId = userId;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    /**
+     * Registers an accumulator of the given type, unless another rule already
+     * did, and returns the instance every rule shares.
+     */
+    public <A extends RollupAccumulator> A register(Class<A> type, Supplier<A> factory) {
+        return type.cast(accumulators.computeIfAbsent(type, k -> factory.get()));
+    }
+
+    /**
+     * @throws RuntimeException if no rule registered an accumulator of the type
+     */
+    public <A extends RollupAccumulator> A get(Class<A> type) {
+        RollupAccumulator accumulator = accumulators.get(type);
+        if (accumulator == null) {
+            throw new RuntimeException("Accumulator not registered: " + type.getSimpleName());
+        }
+        return type.cast(accumulator);
+    }
+
+    Collection<RollupAccumulator> getAccumulators() {
+        return accumulators.values();
+    }
+}
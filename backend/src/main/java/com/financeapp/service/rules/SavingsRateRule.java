@@ -0,0 +1,44 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Notification;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Praises a savings rate of 20% or more and warns below 10%.
+ */
+@Component
+@Order(1)
+public class SavingsRateRule implements NotificationRule {
+
+    @Override
+    public void register(RuleContext context) {
+        context.register(TotalsAccumulator.class, TotalsAccumulator::new);
+    }
+
+    @Override
+    public void evaluate(RuleContext context, List<Suggestion> suggestions) {
+        TotalsAccumulator totals = context.get(TotalsAccumulator.class);
+        if (totals.getTotalIncome().compareTo(BigDecimal.ZERO) <= 0) {
+            return;
+        }
+
+        double savingsRate = totals.getSavingsRate();
+        if (savingsRate >= 20) {
+            suggestions.add(new Suggestion(
+                String.format("Your savings rate is good! You're saving %.1f%% of your income.", savingsRate),
+                Notification.NotificationType.success));
+        } else if (savingsRate < 10) {
+            suggestions.add(new Suggestion(
+                String.format("Try to save at least 20%% of your income. Currently you're saving %.1f%%.", savingsRate),
+                Notification.NotificationType.warning));
+        } else if (savingsRate < 0) {
+            suggestions.add(new Suggestion(
+                "You're spending more than you earn. Try to reduce expenses or increase income.",
+                Notification.NotificationType.warning));
+        }
+    }
+}
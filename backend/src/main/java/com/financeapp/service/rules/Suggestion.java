@@ -0,0 +1,9 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Notification;
+
+/**
+ * A notification a rule wants the user to get.
+ */
+public record Suggestion(String message, Notification.NotificationType type) {
+}
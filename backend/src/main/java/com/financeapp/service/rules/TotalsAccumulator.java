@@ -0,0 +1,58 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import com.financeapp.util.CentsAccumulator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Income and expense totals of the period, and the savings rate they give.
+ */
+public class TotalsAccumulator implements RollupAccumulator {
+
+    private final CentsAccumulator incomeSum = CentsAccumulator.zero();
+
+    private final CentsAccumulator expenseSum = CentsAccumulator.zero();
+
+    private long expenseCount;
+
+    @Override
+    public void accept(TransactionDailyRollup rollup) {
+        if (rollup.getType() == Transaction.TransactionType.income) {
+            incomeSum.plus(rollup.getTotalAmount());
+        } else {
+            expenseSum.plus(rollup.getTotalAmount());
+            expenseCount += rollup.getTxnCount();
+        }
+    }
+
+    public BigDecimal getTotalIncome() {
+        return incomeSum.toBigDecimal();
+    }
+
+    public BigDecimal getTotalExpense() {
+        return expenseSum.toBigDecimal();
+    }
+
+    /**
+     * Number of expense transactions.
+     */
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    /**
+     * Share of the income not spent, in percent; 0 without income.
+     */
+    public double getSavingsRate() {
+        BigDecimal totalIncome = getTotalIncome();
+        if (totalIncome.compareTo(BigDecimal.ZERO) <= 0) {
+            return 0;
+        }
+        BigDecimal savings = totalIncome.subtract(getTotalExpense());
+        return savings.divide(totalIncome, 4, RoundingMode.HALF_UP)
+            .multiply(new BigDecimal("100")).doubleValue();
+    }
+}
@@ -0,0 +1,41 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import com.financeapp.util.CentsAccumulator;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+
+/**
+ * Expenses of the period made on Saturdays and Sundays.
+ */
+public class WeekendAccumulator implements RollupAccumulator {
+
+    private final CentsAccumulator weekendSum = CentsAccumulator.zero();
+
+    private long weekendCount;
+
+    @Override
+    public void accept(TransactionDailyRollup rollup) {
+        if (rollup.getType() != Transaction.TransactionType.expense) {
+            return;
+        }
+        DayOfWeek dayOfWeek = rollup.getDay().getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            weekendSum.plus(rollup.getTotalAmount());
+            weekendCount += rollup.getTxnCount();
+        }
+    }
+
+    public BigDecimal getWeekendTotal() {
+        return weekendSum.toBigDecimal();
+    }
+
+    /**
+     * Number of weekend expense transactions.
+     */
+    public long getWeekendCount() {
+        return weekendCount;
+    }
+}
@@ -0,0 +1,53 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Notification;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Suggests cutting weekend spending when the average weekend expense is more
+ * than 1.5 times the weekday one and weekends make up over 30% of spending.
+ */
+@Component
+@Order(3)
+public class WeekendSpendingRule implements NotificationRule {
+
+    @Override
+    public void register(RuleContext context) {
+        context.register(TotalsAccumulator.class, TotalsAccumulator::new);
+        context.register(WeekendAccumulator.class, WeekendAccumulator::new);
+    }
+
+    @Override
+    public void evaluate(RuleContext context, List<Suggestion> suggestions) {
+        TotalsAccumulator totals = context.get(TotalsAccumulator.class);
+        WeekendAccumulator weekend = context.get(WeekendAccumulator.class);
+        long weekendCount = weekend.getWeekendCount();
+        long weekdayCount = totals.getExpenseCount() - weekendCount;
+        if (weekendCount <= 0 || weekdayCount <= 0) {
+            return;
+        }
+
+        BigDecimal totalExpense = totals.getTotalExpense();
+        BigDecimal weekendTotal = weekend.getWeekendTotal();
+        BigDecimal weekdayTotal = totalExpense.subtract(weekendTotal);
+
+        BigDecimal weekendAvg = weekendTotal.divide(new BigDecimal(weekendCount), 2, RoundingMode.HALF_UP);
+        BigDecimal weekdayAvg = weekdayTotal.divide(new BigDecimal(weekdayCount), 2, RoundingMode.HALF_UP);
+        if (weekdayAvg.compareTo(BigDecimal.ZERO) <= 0) {
+            return;
+        }
+
+        BigDecimal ratio = weekendAvg.divide(weekdayAvg, 2, RoundingMode.HALF_UP);
+        BigDecimal thirtyPercent = totalExpense.multiply(new BigDecimal("0.3"));
+        if (ratio.compareTo(new BigDecimal("1.5")) > 0 && weekendTotal.compareTo(thirtyPercent) > 0) {
+            suggestions.add(new Suggestion(
+                "Reduce weekend spending. Your weekend expenses are significantly higher than weekdays.",
+                Notification.NotificationType.tip));
+        }
+    }
+}
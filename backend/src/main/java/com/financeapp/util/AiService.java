@@ -198,4 +198,19 @@ static {
                 .map(Map.Entry::getKey)
                 .orElse("Other");
     }
+
+    /**
+     * Categorizes many descriptions at once, e.g. the rows of an import.
+     * Each distinct description is only scored once.
+     * 
+     * @param descriptions Transaction descriptions (duplicates are fine)
+     * @return Map from each description to its predicted category
+     */
+    public Map<String, String> getCategoriesFromAI(Collection<String> descriptions) {
+        Map<String, String> categories = new HashMap<>();
+        for (String description : descriptions) {
+            categories.computeIfAbsent(description, this::getCategoryFromAI);
+        }
+        return categories;
+    }
 }
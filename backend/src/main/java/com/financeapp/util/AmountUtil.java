@@ -0,0 +1,53 @@
+package com.financeapp.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The one rule for transaction amounts, shared by the API and the importers:
+ * greater than 0, at most 2 decimal places and at most 10 digits before the
+ * decimal point, which is what DECIMAL(12,2) holds. Nothing is rounded, so
+ * the stored amount is exactly the one the user sent.
+ */
+public class AmountUtil {
+
+    // DECIMAL(12,2): at most 10 digits before the decimal point
+    private static final int MAX_INTEGER_DIGITS = 10;
+
+    private AmountUtil() {
+    }
+
+    /**
+     * @throws RuntimeException if the value is not a number or breaks the rule
+     */
+    public static BigDecimal parse(Object value) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid amount: " + value);
+        }
+        return check(amount);
+    }
+
+    /**
+     * @return The amount with at most 2 decimal places
+     * @throws RuntimeException if the amount breaks the rule
+     */
+    public static BigDecimal check(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new RuntimeException("Amount must be greater than 0");
+        }
+        BigDecimal value;
+        try {
+            // Trailing zeros are fine (12.500), real fractions of a paisa are not
+            value = amount.scale() > 2 ? amount.setScale(2, RoundingMode.UNNECESSARY) : amount;
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Amount can have at most 2 decimal places");
+        }
+        if (value.precision() - value.scale() > MAX_INTEGER_DIGITS) {
+            throw new RuntimeException("Amount is too large");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package com.financeapp.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mutable running money total stored as a primitive long of minor units
+ * (paise/cents).
+ *
+ * Used to sum amounts in loops without allocating a new BigDecimal for every
+ * addition. Amounts are converted from BigDecimal when they are added and back
+ * to BigDecimal only when the total is returned from the API.
+ *
+ * plus and minus both update this total in place and return it; use copy()
+ * first to keep the old total. Because the total changes, an accumulator
+ * must not be used as a map key or in a set while it is still being summed.
+ *
+ * All amounts in this app have 2 decimal places (DECIMAL(12,2) columns).
+ * Adding an amount with more decimals, or a total that no longer fits in a
+ * long, throws ArithmeticException instead of silently losing money.
+ */
+public final class CentsAccumulator implements Comparable<CentsAccumulator> {
+
+    private static final int SCALE = 2;
+
+    private long cents;
+
+    private CentsAccumulator(long cents) {
+        this.cents = cents;
+    }
+
+    public static CentsAccumulator zero() {
+        return new CentsAccumulator(0);
+    }
+
+    public static CentsAccumulator ofCents(long cents) {
+        return new CentsAccumulator(cents);
+    }
+
+    public static CentsAccumulator of(BigDecimal amount) {
+        return new CentsAccumulator(toCents(amount));
+    }
+
+    /**
+     * Converts a BigDecimal amount to minor units.
+     *
+     * @throws ArithmeticException if the amount has more than 2 decimals or doesn't fit in a long
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts minor units back to a BigDecimal with 2 decimals.
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public CentsAccumulator plus(BigDecimal amount) {
+        return plusCents(toCents(amount));
+    }
+
+    public CentsAccumulator plus(CentsAccumulator other) {
+        return plusCents(other.cents);
+    }
+
+    public CentsAccumulator plusCents(long amountCents) {
+        try {
+            cents = Math.addExact(cents, amountCents);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Money total overflow");
+        }
+        return this;
+    }
+
+    public CentsAccumulator minus(BigDecimal amount) {
+        return minusCents(toCents(amount));
+    }
+
+    public CentsAccumulator minus(CentsAccumulator other) {
+        return minusCents(other.cents);
+    }
+
+    public CentsAccumulator minusCents(long amountCents) {
+        try {
+            cents = Math.subtractExact(cents, amountCents);
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Money total overflow");
+        }
+        return this;
+    }
+
+    /**
+     * A new accumulator starting at this total.
+     */
+    public CentsAccumulator copy() {
+        return new CentsAccumulator(cents);
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(cents);
+    }
+
+    @Override
+    public int compareTo(CentsAccumulator other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    // Equal when the totals are equal, consistent with compareTo
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CentsAccumulator other && cents == other.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.financeapp.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Sends a file from disk as a download.
+ *
+ * Supports a single HTTP Range (checked against If-Range) so interrupted
+ * downloads can resume. The file is opened before the response is returned
+ * and the bytes are sent from that open channel with FileChannel.transferTo,
+ * so a cleanup that deletes the file meanwhile (export cache or job expiry)
+ * can't cut the download short after Content-Length has been sent.
+ */
+public class FileResponses {
+
+    /**
+     * @param headers response headers (content type, disposition, ETag);
+     *                range and length headers are added here
+     * @throws NoSuchFileException if the file is gone
+     */
+    public static ResponseEntity<?> serve(Path file, HttpHeaders headers, HttpServletRequest request)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file);
+        try {
+            long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+            HttpStatus status = HttpStatus.OK;
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+            // If-Range: only resume when the client still has this same file
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rangeHeader != null && (ifRange == null || ifRange.equals(headers.getETag()))) {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multi-range (multipart/byteranges) responses are not supported; send the whole file
+                if (ranges.size() == 1) {
+                    try {
+                        start = ranges.get(0).getRangeStart(length);
+                        end = ranges.get(0).getRangeEnd(length);
+                    } catch (IllegalArgumentException e) {
+                        channel.close();
+                        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                                .build();
+                    }
+                    status = HttpStatus.PARTIAL_CONTENT;
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+
+            long count = end - start + 1;
+            headers.setContentLength(count);
+
+            long position = start;
+            StreamingResponseBody body = out -> {
+                try (channel) {
+                    WritableByteChannel target = Channels.newChannel(out);
+                    long sent = 0;
+                    while (sent < count) {
+                        long transferred = channel.transferTo(position + sent, count - sent, target);
+                        if (transferred <= 0) {
+                            break;
+                        }
+                        sent += transferred;
+                    }
+                }
+            };
+            return new ResponseEntity<>(body, headers, status);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.financeapp.util;
+
+import com.financeapp.dto.StatementEntry;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the transactions (STMTTRN elements) of an OFX/QFX file.
+ *
+ * Works for both OFX 1.x (SGML, where value elements have no closing tag)
+ * and OFX 2.x (XML): the file is read tag by tag, and only the values
+ * inside the current STMTTRN are kept. Bank and credit card statements use
+ * the same element. TRNAMT is signed, so credits come back positive and
+ * debits negative.
+ */
+public class OfxStatementReader implements StatementReader {
+
+    // Longest value kept; OFX values are far shorter, this only bounds memory on broken files
+    private static final int MAX_VALUE_LENGTH = 4096;
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+
+    /**
+     * @param reader The file; it should be buffered and is not closed
+     */
+    public OfxStatementReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public StatementEntry next() throws IOException {
+        Map<String, String> fields = null;
+        String valueTag = null;
+        StringBuilder value = new StringBuilder();
+
+        int c;
+        while ((c = read()) != -1) {
+            if (c != '<') {
+                if (valueTag != null && value.length() < MAX_VALUE_LENGTH) {
+                    value.append((char) c);
+                }
+                continue;
+            }
+
+            // Any tag ends the value before it (SGML has no closing tags for values)
+            if (valueTag != null) {
+                String text = decodeEntities(value.toString().trim());
+                if (!text.isEmpty()) {
+                    fields.putIfAbsent(valueTag, text);
+                }
+                valueTag = null;
+                value.setLength(0);
+            }
+
+            String tag = readTag();
+            if (tag.equals("STMTTRN")) {
+                fields = new HashMap<>();
+                recordLine = line;
+            } else if (tag.equals("/STMTTRN")) {
+                if (fields != null) {
+                    return toEntry(fields);
+                }
+            } else if (fields != null && !tag.isEmpty() && Character.isLetter(tag.charAt(0))) {
+                valueTag = tag;
+            }
+        }
+
+        if (fields != null) {
+            throw new RuntimeException("The file ends in the middle of a transaction");
+        }
+        return null;
+    }
+
+    @Override
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        int c = reader.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    /**
+     * Reads up to the closing '>' and returns the element name in upper case,
+     * with a leading '/' for closing tags. Attributes and a trailing '/' are dropped.
+     */
+    private String readTag() throws IOException {
+        StringBuilder tag = new StringBuilder();
+        boolean inName = true;
+        int c;
+        while ((c = read()) != -1 && c != '>') {
+            if (Character.isWhitespace(c) || (c == '/' && tag.length() > 0)) {
+                inName = false;
+            }
+            if (inName && tag.length() < MAX_VALUE_LENGTH) {
+                tag.append((char) c);
+            }
+        }
+        return tag.toString().toUpperCase();
+    }
+
+    private StatementEntry toEntry(Map<String, String> fields) {
+        String posted = fields.get("DTPOSTED");
+        String amount = fields.get("TRNAMT");
+        if (posted == null || amount == null) {
+            throw new RuntimeException("Transaction has no DTPOSTED or TRNAMT");
+        }
+
+        LocalDate date;
+        try {
+            // yyyyMMdd, optionally followed by a time and time zone
+            date = LocalDate.parse(posted.substring(0, Math.min(8, posted.length())), OFX_DATE);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid date: " + posted);
+        }
+
+        BigDecimal value;
+        try {
+            // Some banks write a decimal comma
+            String normalized = amount.indexOf('.') < 0 ? amount.replace(',', '.') : amount.replace(",", "");
+            value = new BigDecimal(normalized.replace("+", ""));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid amount: " + amount);
+        }
+
+        String reference = fields.containsKey("CHECKNUM") ? fields.get("CHECKNUM") : fields.get("FITID");
+        return new StatementEntry(date, value, null,
+                StatementReader.description(fields.get("NAME"), fields.get("MEMO")), reference);
+    }
+
+    private static String decodeEntities(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&nbsp;", " ")
+                .replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,157 @@
+package com.financeapp.util;
+
+import com.financeapp.dto.StatementEntry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the transactions of a QIF (Quicken Interchange Format) file.
+ *
+ * A QIF file is a list of records, one field per line (the first character
+ * is the field code) and a '^' line after each record. Only records under a
+ * !Type header for an account (Bank, Cash, CCard, Oth A, Oth L) are read;
+ * investment, category, class and account lists are skipped. Split lines
+ * are ignored, the record total (T) is used. Amounts are signed, negative
+ * for money going out.
+ */
+public class QifStatementReader implements StatementReader {
+
+    private static final Set<String> ACCOUNT_TYPES = Set.of("bank", "cash", "ccard", "oth a", "oth l");
+
+    private final BufferedReader reader;
+    private long line;
+    private long recordLine;
+
+    // Files without a !Type header are treated as bank statements
+    private boolean inAccount = true;
+
+    /**
+     * @param reader The file; it is not closed
+     */
+    public QifStatementReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public StatementEntry next() throws IOException {
+        Map<Character, String> fields = new HashMap<>();
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (fields.isEmpty()) {
+                recordLine = line;
+            }
+
+            char code = text.charAt(0);
+            if (code == '!') {
+                String header = text.trim().toLowerCase();
+                if (header.startsWith("!type:")) {
+                    inAccount = ACCOUNT_TYPES.contains(header.substring("!type:".length()).trim());
+                } else if (header.startsWith("!account")) {
+                    // An account list follows, up to the next !Type
+                    inAccount = false;
+                }
+                fields.clear();
+            } else if (code == '^') {
+                if (inAccount && !fields.isEmpty()) {
+                    return toEntry(fields);
+                }
+                fields.clear();
+            } else {
+                // The first occurrence wins; later S/E/$ split lines don't matter here
+                fields.putIfAbsent(code, text.substring(1).trim());
+            }
+        }
+
+        // The last record may not be followed by '^'
+        if (inAccount && !fields.isEmpty()) {
+            return toEntry(fields);
+        }
+        return null;
+    }
+
+    @Override
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private StatementEntry toEntry(Map<Character, String> fields) {
+        String date = fields.get('D');
+        String amount = fields.containsKey('T') ? fields.get('T') : fields.get('U');
+        if (date == null || amount == null) {
+            throw new RuntimeException("Transaction has no date (D) or amount (T)");
+        }
+
+        BigDecimal value;
+        try {
+            value = new BigDecimal(amount.replace(",", "").replace(" ", ""));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid amount: " + amount);
+        }
+
+        return new StatementEntry(parseDate(date), value, parseCategory(fields.get('L')),
+                StatementReader.description(fields.get('P'), fields.get('M')), fields.get('N'));
+    }
+
+    /**
+     * QIF dates have no fixed format. Accepted: yyyy-MM-dd, and month/day/year
+     * with '/', '-' or '.' separators, where a year after an apostrophe
+     * (1/5'24) is in the 2000s. When the first number can't be a month
+     * (e.g. 25/12/2024) the date is read as day/month/year.
+     */
+    static LocalDate parseDate(String value) {
+        String date = value.replace(" ", "");
+        try {
+            if (date.matches("\\d{4}-\\d{1,2}-\\d{1,2}")) {
+                String[] parts = date.split("-");
+                return LocalDate.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                        Integer.parseInt(parts[2]));
+            }
+
+            String[] parts = date.split("[/'.\\-]");
+            if (parts.length != 3) {
+                throw new RuntimeException("Invalid date: " + value);
+            }
+            int first = Integer.parseInt(parts[0]);
+            int second = Integer.parseInt(parts[1]);
+            int year = Integer.parseInt(parts[2]);
+            if (parts[2].length() <= 2) {
+                year += date.contains("'") || year < 70 ? 2000 : 1900;
+            }
+            return first > 12 ? LocalDate.of(year, second, first) : LocalDate.of(year, first, second);
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new RuntimeException("Invalid date: " + value);
+        }
+    }
+
+    /**
+     * "Food:Groceries/Class" becomes "Food". Transfers ("[Savings]") have no
+     * category; they are categorized like rows without one.
+     */
+    private static String parseCategory(String value) {
+        if (value == null || value.isEmpty() || value.startsWith("[")) {
+            return null;
+        }
+        int end = value.length();
+        int colon = value.indexOf(':');
+        int slash = value.indexOf('/');
+        if (colon >= 0) {
+            end = colon;
+        }
+        if (slash >= 0 && slash < end) {
+            end = slash;
+        }
+        String category = value.substring(0, end).trim();
+        return category.isEmpty() ? null : category;
+    }
+}
@@ -0,0 +1,38 @@
+package com.financeapp.util;
+
+import com.financeapp.dto.StatementEntry;
+
+import java.io.IOException;
+
+/**
+ * Reads the transactions of a bank statement file one at a time, so a file
+ * of any size is imported with constant memory.
+ */
+public interface StatementReader {
+
+    /**
+     * @return the next transaction, or null at the end of the file
+     * @throws RuntimeException if the transaction is invalid; it has been
+     *                          read completely, so the next call continues
+     *                          with the one after it
+     */
+    StatementEntry next() throws IOException;
+
+    /**
+     * @return the line on which the transaction last returned (or rejected) by next() starts
+     */
+    long getRecordLine();
+
+    /**
+     * Joins the payee and memo of a transaction into one description.
+     */
+    static String description(String payee, String memo) {
+        if (payee == null || payee.isEmpty()) {
+            return memo;
+        }
+        if (memo == null || memo.isEmpty() || memo.equalsIgnoreCase(payee)) {
+            return payee;
+        }
+        return payee + " - " + memo;
+    }
+}
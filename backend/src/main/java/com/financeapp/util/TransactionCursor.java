@@ -0,0 +1,34 @@
+package com.financeapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the transaction list for keyset ("seek") pagination.
+ *
+ * The list is ordered by transactionDate DESC, createdAt DESC, id DESC, so
+ * the last row of a page is enough to find where the next page starts.
+ * Clients only see it as an opaque URL-safe string.
+ */
+public record TransactionCursor(LocalDate transactionDate, LocalDateTime createdAt, Integer id) {
+
+    public String encode() {
+        String raw = transactionDate + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new TransactionCursor(
+                    LocalDate.parse(parts[0]),
+                    LocalDateTime.parse(parts[1]),
+                    Integer.valueOf(parts[2]));
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+-- Base tables for the five JPA entities (User, Transaction, Budget, Goal, Notification).
+-- IF NOT EXISTS keeps this safe on databases created before migrations were introduced.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          INT          NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    gender      VARCHAR(50)           DEFAULT 'Not Selected',
+    dob         VARCHAR(50)           DEFAULT 'Not Selected',
+    phone       VARCHAR(50)           DEFAULT '',
+    email       VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    image       TEXT,
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_users_email (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id                INT            NOT NULL AUTO_INCREMENT,
+    user_id           INT            NOT NULL,
+    type              VARCHAR(10)    NOT NULL,
+    category          VARCHAR(100)   NOT NULL,
+    amount            DECIMAL(12, 2) NOT NULL,
+    reference         VARCHAR(255),
+    description       TEXT,
+    transaction_date  DATE           NOT NULL,
+    created_at        DATETIME(6)    NOT NULL,
+    updated_at        DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id          INT            NOT NULL AUTO_INCREMENT,
+    user_id     INT            NOT NULL,
+    category    VARCHAR(100)   NOT NULL,
+    amount      DECIMAL(12, 2) NOT NULL,
+    created_at  DATETIME(6)    NOT NULL,
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_budgets_user_category (user_id, category)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS goals (
+    id             INT            NOT NULL AUTO_INCREMENT,
+    user_id        INT            NOT NULL,
+    title          VARCHAR(255)   NOT NULL,
+    description    TEXT,
+    target_amount  DECIMAL(12, 2) NOT NULL,
+    saved_amount   DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    target_date    DATE,
+    status         VARCHAR(10)    NOT NULL DEFAULT 'active',
+    created_at     DATETIME(6)    NOT NULL,
+    updated_at     DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id          INT          NOT NULL AUTO_INCREMENT,
+    user_id     INT          NOT NULL,
+    message     TEXT         NOT NULL,
+    type        VARCHAR(10)  NOT NULL DEFAULT 'info',
+    is_read     BIT(1)       NOT NULL DEFAULT 0,
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,22 @@
+-- Per-user daily totals maintained by TransactionRollupService.
+-- The primary key doubles as the upsert target and serves (user_id, day range) reads.
+-- Categories are compared byte for byte, so "Food" and "food" stay separate
+-- rows, as they are separate groups in the per-row analytics.
+
+CREATE TABLE IF NOT EXISTS transaction_daily_rollup (
+    user_id       INT            NOT NULL,
+    day           DATE           NOT NULL,
+    type          VARCHAR(10)    NOT NULL,
+    category      VARCHAR(100)   CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+    total_amount  DECIMAL(15, 2) NOT NULL,
+    txn_count     INT            NOT NULL,
+    PRIMARY KEY (user_id, day, type, category)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- Backfill from the existing transactions.
+-- Runs before the application serves requests, so no live writes interleave;
+-- later rebuilds go through RollupRebuildRunner, which works in user ranges.
+INSERT INTO transaction_daily_rollup (user_id, day, type, category, total_amount, txn_count)
+SELECT user_id, transaction_date, type, category COLLATE utf8mb4_bin, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY user_id, transaction_date, type, category COLLATE utf8mb4_bin;
@@ -0,0 +1,33 @@
+-- Composite indexes for the repository queries.
+-- Each index lists the queries it is meant to serve; QueryPlanCheckRunner verifies them.
+
+-- TransactionRepository: findTransactionsWithFilters, findTransactionsAfterCursor,
+-- countTransactionsWithFilters, findByUserIdOrderByTransactionDateDescCreatedAtDesc,
+-- findByUserId, streamForExport, findAmountRowsByUserId
+-- (user_id = ? [AND transaction_date range] ORDER BY transaction_date DESC, created_at DESC, id DESC)
+ALTER TABLE transactions
+    ADD INDEX idx_transactions_user_date_created (user_id, transaction_date, created_at, id);
+
+-- The rollup rebuild and backfill
+-- (GROUP BY user_id, transaction_date, type, category with SUM(amount)), as a covering index
+ALTER TABLE transactions
+    ADD INDEX idx_transactions_user_date_type_category (user_id, transaction_date, type, category, amount);
+
+-- NotificationRepository: findTop6ByUserIdOrderByCreatedAtDesc, countByUserId, findUserIdsAfter,
+-- deleteAllButNewest, deleteAllButNewestOf
+-- (user_id = ? [ORDER BY created_at DESC], or a user_id range)
+ALTER TABLE notifications
+    ADD INDEX idx_notifications_user_created (user_id, created_at);
+
+-- NotificationRepository: findByUserIdAndIsReadFalseOrderByCreatedAtDesc, countByUserIdAndIsReadFalse,
+-- markAllAsRead (user_id = ? AND is_read = false)
+ALTER TABLE notifications
+    ADD INDEX idx_notifications_user_read_created (user_id, is_read, created_at);
+
+-- GoalRepository: findByUserIdOrderByCreatedAtDesc, findByUserIdAndStatus
+ALTER TABLE goals
+    ADD INDEX idx_goals_user_created (user_id, created_at),
+    ADD INDEX idx_goals_user_status (user_id, status);
+
+-- BudgetRepository: findByUserIdOrderByCategoryAsc and findByUserIdAndCategory
+-- are already served by uk_budgets_user_category (user_id, category).
@@ -0,0 +1,6 @@
+-- Incremented on every transaction write for the user (TransactionService).
+-- Export ETags and cached export files are keyed on it, so any change to the
+-- user's transactions makes old exports stale.
+
+ALTER TABLE users
+    ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0;
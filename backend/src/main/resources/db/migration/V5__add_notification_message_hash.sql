@@ -0,0 +1,17 @@
+-- SHA-256 (hex) of notifications.message, so duplicate checks can use an index
+-- instead of comparing the TEXT column. Set by the application on insert;
+-- SHA2() hashes the same UTF-8 bytes as Notification.hashMessage.
+
+ALTER TABLE notifications
+    ADD COLUMN message_hash CHAR(64) NULL;
+
+UPDATE notifications
+    SET message_hash = SHA2(message, 256)
+    WHERE message_hash IS NULL;
+
+ALTER TABLE notifications
+    MODIFY COLUMN message_hash CHAR(64) NOT NULL;
+
+-- NotificationRepository.findRecentMessageHashes (user_id = ? AND message_hash IN (...) AND created_at >= ?)
+ALTER TABLE notifications
+    ADD INDEX idx_notifications_user_hash_created (user_id, message_hash, created_at);
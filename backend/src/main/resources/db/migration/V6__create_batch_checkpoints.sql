@@ -0,0 +1,12 @@
+-- Progress of long-running batch jobs (NotificationBatchService), one row per job.
+-- last_user_id is a contiguous watermark: every user up to it has been processed,
+-- so an interrupted run resumes after it.
+
+CREATE TABLE IF NOT EXISTS batch_checkpoints (
+    job_name      VARCHAR(50)  NOT NULL,
+    started_at    DATETIME(6)  NOT NULL,
+    last_user_id  INT          NOT NULL DEFAULT 0,
+    completed     BIT(1)       NOT NULL DEFAULT 0,
+    updated_at    DATETIME(6),
+    PRIMARY KEY (job_name)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,52 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.CategoryAggregate;
+import com.financeapp.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analytics for one user at 10k, 100k and 1M transactions: the old
+ * aggregation over loaded Transaction entities against building the same
+ * response from the grouped (type, category) rows the database returns.
+ *
+ * Only the application side is measured. The database's GROUP BY is not,
+ * and neither is Hibernate loading the entities, which the old path also
+ * paid for (so its real cost is higher than shown here).
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AnalyticsAggregationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AnalyticsAggregationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private List<Transaction> transactions;
+
+    private List<CategoryAggregate> aggregates;
+
+    @Setup
+    public void setUp() {
+        transactions = SampleTransactions.generate(rows, 42);
+        aggregates = SampleTransactions.aggregate(transactions);
+    }
+
+    @Benchmark
+    public Map<String, Object> loadedEntities() {
+        return BaselineAnalytics.analytics(transactions);
+    }
+
+    @Benchmark
+    public Map<String, Object> groupedRows() {
+        return TransactionService.buildAnalytics(aggregates);
+    }
+}
@@ -0,0 +1,86 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The analytics aggregation as TransactionService.getAnalytics did it
+ * before it moved into the database: several passes over the loaded
+ * Transaction entities. Kept only to check and benchmark its replacement.
+ */
+final class BaselineAnalytics {
+
+    private BaselineAnalytics() {
+    }
+
+    static Map<String, Object> analytics(List<Transaction> transactions) {
+        BigDecimal totalIncome = transactions.stream()
+                .filter(t -> t.getType() == Transaction.TransactionType.income)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal totalExpense = transactions.stream()
+                .filter(t -> t.getType() == Transaction.TransactionType.expense)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Map<String, Object> totals = new HashMap<>();
+        totals.put("totalTransactions", transactions.size());
+        totals.put("totalIncome", totalIncome);
+        totals.put("totalExpense", totalExpense);
+
+        Map<String, CategoryStats> expenseCategoryMap = new HashMap<>();
+        for (Transaction t : transactions) {
+            if (t.getType() == Transaction.TransactionType.expense) {
+                expenseCategoryMap.computeIfAbsent(t.getCategory(), k -> new CategoryStats())
+                        .addAmount(t.getAmount(), 1);
+            }
+        }
+
+        Map<String, CategoryStats> incomeCategoryMap = new HashMap<>();
+        for (Transaction t : transactions) {
+            if (t.getType() == Transaction.TransactionType.income) {
+                incomeCategoryMap.computeIfAbsent(t.getCategory(), k -> new CategoryStats())
+                        .addAmount(t.getAmount(), 1);
+            }
+        }
+
+        List<Map<String, Object>> categories = new ArrayList<>();
+        addCategories(categories, expenseCategoryMap, "expense");
+        addCategories(categories, incomeCategoryMap, "income");
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("totals", totals);
+        result.put("categories", categories);
+        return result;
+    }
+
+    private static void addCategories(List<Map<String, Object>> categories, Map<String, CategoryStats> stats,
+            String type) {
+        stats.entrySet().stream()
+                .sorted((a, b) -> b.getValue().totalAmount.compareTo(a.getValue().totalAmount))
+                .forEach(e -> {
+                    Map<String, Object> cat = new HashMap<>();
+                    cat.put("category", e.getKey());
+                    cat.put("type", type);
+                    cat.put("totalAmount", e.getValue().totalAmount);
+                    cat.put("count", e.getValue().count);
+                    categories.add(cat);
+                });
+    }
+
+    private static class CategoryStats {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        int count = 0;
+
+        void addAmount(BigDecimal amount, int cnt) {
+            totalAmount = totalAmount.add(amount);
+            count += cnt;
+        }
+    }
+}
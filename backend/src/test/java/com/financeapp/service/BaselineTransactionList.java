@@ -0,0 +1,52 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Transaction;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The HashMap-based GET /api/user/transactions response from before the
+ * typed records, kept to check the JSON stays the same and to benchmark
+ * against.
+ */
+final class BaselineTransactionList {
+
+    private BaselineTransactionList() {
+    }
+
+    // TransactionService.getTransactions and the controller's response map
+    static Map<String, Object> response(List<Transaction> transactions, long total, int page, int pageSize,
+            int totalPages) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("transactions", transactions.stream().map(BaselineTransactionList::convertToMap).toList());
+
+        Map<String, Object> pagination = new HashMap<>();
+        pagination.put("total", total);
+        pagination.put("page", page);
+        pagination.put("pageSize", pageSize);
+        pagination.put("totalPages", totalPages);
+        result.put("pagination", pagination);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.putAll(result);
+        return response;
+    }
+
+    private static Map<String, Object> convertToMap(Transaction transaction) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", transaction.getId());
+        map.put("user_id", transaction.getUserId());
+        map.put("type", transaction.getType().toString());
+        map.put("category", transaction.getCategory());
+        map.put("amount", transaction.getAmount());
+        map.put("reference", transaction.getReference());
+        map.put("description", transaction.getDescription());
+        map.put("transaction_date", transaction.getTransactionDate().toString());
+        map.put("created_at", transaction.getCreatedAt());
+        map.put("updated_at", transaction.getUpdatedAt());
+        return map;
+    }
+}
@@ -0,0 +1,97 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.ImportReport;
+import com.financeapp.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV import rate in rows per second for a 1M-row file: mapping, splitting,
+ * parsing and validating the rows and handing them to the writer in chunks.
+ * Run with 1 to 8 parse threads (import.parallel.threads) to see how the
+ * rate scales with cores; counts above the machine's cores show no gain.
+ *
+ * The batch writer is replaced by one that drops the chunks, so the
+ * database inserts are not measured; they need a running MySQL and are the
+ * larger part of a real import.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CsvImportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CsvImportBenchmark.ROWS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvImportBenchmark {
+
+    static final int ROWS = 1_000_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path file;
+
+    private NotificationScheduler notificationScheduler;
+
+    private TransactionImportService importService;
+
+    @Setup
+    public void setUp() throws IOException, ReflectiveOperationException {
+        file = Files.createTempFile("import-benchmark-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Date,Type,Category,Amount,Description\n");
+            for (Transaction transaction : SampleTransactions.generate(ROWS, 42)) {
+                writer.write(transaction.getTransactionDate() + "," + transaction.getType() + ","
+                        + transaction.getCategory() + "," + transaction.getAmount() + ","
+                        + transaction.getDescription() + "\n");
+            }
+        }
+
+        notificationScheduler = new NotificationScheduler(0, 1, 1, new SimpleMeterRegistry()) {
+            @Override
+            public void requestGeneration(Integer userId) {
+            }
+        };
+        importService = new TransactionImportService(threads);
+        set("batchWriter", new TransactionBatchWriter() {
+            @Override
+            public void write(Integer userId, List<Transaction> transactions) {
+            }
+        });
+        set("notificationScheduler", notificationScheduler);
+        // The defaults from application.properties
+        set("chunkSize", 5000);
+        set("maxErrors", 1000);
+        set("segmentBytes", 4L * 1024 * 1024);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        importService.shutdown();
+        notificationScheduler.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ImportReport importCsv() throws IOException {
+        return importService.importCsv(SampleTransactions.USER_ID, file);
+    }
+
+    // The service's dependencies and settings are injected into private fields
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = TransactionImportService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(importService, value);
+    }
+}
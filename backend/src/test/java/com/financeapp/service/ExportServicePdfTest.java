@@ -0,0 +1,85 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.ExportFilter;
+import com.financeapp.model.Transaction;
+import com.financeapp.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServicePdfTest {
+
+    private static final ExportFilter NO_FILTER = new ExportFilter(null, null, null);
+
+    // Keeping every row's five cells and paragraphs until the end, as the
+    // single table did, grows the heap with each of these rows
+    private static final int ROWS = 30_000;
+
+    private static final long HEAP_CEILING_BYTES = 32L * 1024 * 1024;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Called for every row, so its calls must not be recorded
+    @Mock(stubOnly = true)
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @Test
+    void writesAPdf() {
+        List<Transaction> transactions = SampleTransactions.generate(50, 42);
+        when(transactionRepository.streamForExport(SampleTransactions.USER_ID, null, null, null))
+                .thenReturn(transactions.stream());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.writePdf(SampleTransactions.USER_ID, NO_FILTER, out);
+
+        assertEquals("%PDF-", new String(out.toByteArray(), 0, 5, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void heapStaysFlatWhileRowsAreWritten() {
+        // Generated up front, so the rows themselves are in both measurements
+        List<Transaction> transactions = SampleTransactions.generate(ROWS, 42);
+        long[] usedHeap = new long[2];
+        when(transactionRepository.streamForExport(SampleTransactions.USER_ID, null, null, null))
+                .thenReturn(transactions.stream().peek(transaction -> {
+                    if (transaction.getId() == ROWS / 10) {
+                        usedHeap[0] = usedHeapAfterGc();
+                    } else if (transaction.getId() == ROWS) {
+                        usedHeap[1] = usedHeapAfterGc();
+                    }
+                }));
+
+        exportService.writePdf(SampleTransactions.USER_ID, NO_FILTER, OutputStream.nullOutputStream());
+
+        long growth = usedHeap[1] - usedHeap[0];
+        assertTrue(growth < HEAP_CEILING_BYTES,
+                "Heap grew by " + growth / 1024 + " KB over " + (ROWS - ROWS / 10) + " rows");
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,83 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.util.CentsAccumulator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing transaction amounts the old way, with a BigDecimal reduction,
+ * against CentsAccumulator's long cents. Both the income/expense totals
+ * (analytics, PDF summary) and per-category totals (suggestions, rollups)
+ * are measured.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MoneySummingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MoneySummingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        transactions = SampleTransactions.generate(rows, 42);
+    }
+
+    @Benchmark
+    public void totalsBigDecimal(Blackhole blackhole) {
+        // As getAnalytics summed before
+        blackhole.consume(transactions.stream()
+                .filter(t -> t.getType() == Transaction.TransactionType.income)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        blackhole.consume(transactions.stream()
+                .filter(t -> t.getType() == Transaction.TransactionType.expense)
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    @Benchmark
+    public void totalsCents(Blackhole blackhole) {
+        CentsAccumulator income = CentsAccumulator.zero();
+        CentsAccumulator expense = CentsAccumulator.zero();
+        for (Transaction t : transactions) {
+            (t.getType() == Transaction.TransactionType.income ? income : expense).plus(t.getAmount());
+        }
+        blackhole.consume(income.toBigDecimal());
+        blackhole.consume(expense.toBigDecimal());
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> categoriesBigDecimal() {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Transaction t : transactions) {
+            totals.merge(t.getCategory(), t.getAmount(), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> categoriesCents() {
+        Map<String, CentsAccumulator> sums = new HashMap<>();
+        for (Transaction t : transactions) {
+            sums.computeIfAbsent(t.getCategory(), k -> CentsAccumulator.zero()).plus(t.getAmount());
+        }
+        Map<String, BigDecimal> totals = new HashMap<>();
+        sums.forEach((category, sum) -> totals.put(category, sum.toBigDecimal()));
+        return totals;
+    }
+}
@@ -0,0 +1,90 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.ExportFilter;
+import com.financeapp.model.Transaction;
+import com.financeapp.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF export rate in rows per second for a 50k-row history, written to a
+ * discarding stream. The repository hands out generated rows, so only the
+ * layout and writing of the PDF is measured, not the database cursor.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PdfExportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(PdfExportBenchmark.ROWS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PdfExportBenchmark {
+
+    static final int ROWS = 50_000;
+
+    private final ExportFilter filter = new ExportFilter(null, null, null);
+
+    private ExportService exportService;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        List<Transaction> transactions = SampleTransactions.generate(ROWS, 42);
+
+        exportService = new ExportService();
+        set("transactionRepository", stub(TransactionRepository.class, "streamForExport", transactions));
+        set("entityManager", stub(EntityManager.class, "detach", null));
+        set("transactionManager", new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+    }
+
+    @Benchmark
+    public void writePdf() {
+        exportService.writePdf(SampleTransactions.USER_ID, filter, OutputStream.nullOutputStream());
+    }
+
+    // The service's dependencies are injected into private fields
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = ExportService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(exportService, value);
+    }
+
+    /**
+     * An implementation of the interface that only supports the one method:
+     * it returns a new stream of the rows, or nothing if rows is null.
+     * Cheaper per call than a mock, which would be measured too.
+     */
+    private static <T> T stub(Class<T> type, String method, List<Transaction> rows) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, called, args) -> {
+                    if (!called.getName().equals(method)) {
+                        throw new UnsupportedOperationException(called.getName());
+                    }
+                    return rows != null ? rows.stream() : null;
+                }));
+    }
+}
@@ -0,0 +1,104 @@
+package com.financeapp.service;
+
+import com.financeapp.dto.CategoryAggregate;
+import com.financeapp.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generated transactions for tests and benchmarks: one user, a year of
+ * dates, a dozen expense and a few income categories, amounts with cents.
+ */
+final class SampleTransactions {
+
+    static final Integer USER_ID = 1;
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    private static final String[] EXPENSE_CATEGORIES = {"Food", "Rent", "Transportation", "Entertainment",
+            "Shopping", "Utilities", "Health", "Insurance", "Education", "Travel", "Gifts", "Other"};
+
+    private static final String[] INCOME_CATEGORIES = {"Salary", "Freelance", "Interest"};
+
+    private SampleTransactions() {
+    }
+
+    /**
+     * @param seed Same seed, same transactions
+     */
+    static List<Transaction> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean income = random.nextInt(10) == 0;
+            Transaction transaction = new Transaction();
+            transaction.setId(i + 1);
+            transaction.setUserId(USER_ID);
+            transaction.setType(income ? Transaction.TransactionType.income : Transaction.TransactionType.expense);
+            transaction.setCategory(income
+                    ? INCOME_CATEGORIES[random.nextInt(INCOME_CATEGORIES.length)]
+                    : EXPENSE_CATEGORIES[random.nextInt(EXPENSE_CATEGORIES.length)]);
+            transaction.setAmount(BigDecimal.valueOf(1 + random.nextInt(income ? 500_000 : 50_000), 2));
+            transaction.setDescription("Transaction " + i);
+            transaction.setTransactionDate(FIRST_DAY.plusDays(random.nextInt(365)));
+            transaction.setCreatedAt(LocalDateTime.of(transaction.getTransactionDate(), LocalTime.NOON));
+            transaction.setUpdatedAt(transaction.getCreatedAt());
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    /**
+     * What the grouped SUM/COUNT query returns for the transactions.
+     */
+    static List<CategoryAggregate> aggregate(List<Transaction> transactions) {
+        Map<List<Object>, Aggregate> groups = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            Aggregate aggregate = groups.computeIfAbsent(List.of(transaction.getType(), transaction.getCategory()),
+                    key -> new Aggregate(transaction.getType(), transaction.getCategory()));
+            aggregate.totalAmount = aggregate.totalAmount.add(transaction.getAmount());
+            aggregate.txnCount++;
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static final class Aggregate implements CategoryAggregate {
+        private final Transaction.TransactionType type;
+        private final String category;
+        private BigDecimal totalAmount = BigDecimal.ZERO.setScale(2);
+        private long txnCount;
+
+        Aggregate(Transaction.TransactionType type, String category) {
+            this.type = type;
+            this.category = category;
+        }
+
+        @Override
+        public Transaction.TransactionType getType() {
+            return type;
+        }
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public BigDecimal getTotalAmount() {
+            return totalAmount;
+        }
+
+        @Override
+        public Long getTxnCount() {
+            return txnCount;
+        }
+    }
+}
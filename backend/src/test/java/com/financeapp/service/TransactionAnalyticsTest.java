@@ -0,0 +1,38 @@
+package com.financeapp.service;
+
+import com.financeapp.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionAnalyticsTest {
+
+    @Test
+    void groupedTotalsGiveTheSameResponseAsLoadedTransactions() {
+        List<Transaction> transactions = SampleTransactions.generate(5000, 42);
+
+        assertEquals(BaselineAnalytics.analytics(transactions),
+                TransactionService.buildAnalytics(SampleTransactions.aggregate(transactions)));
+    }
+
+    @Test
+    void missingTypeTotalsStayZero() {
+        List<Transaction> expenses = SampleTransactions.generate(200, 7).stream()
+                .filter(t -> t.getType() == Transaction.TransactionType.expense)
+                .toList();
+
+        Map<String, Object> analytics = TransactionService.buildAnalytics(SampleTransactions.aggregate(expenses));
+
+        assertEquals(BaselineAnalytics.analytics(expenses), analytics);
+        assertSame(BigDecimal.ZERO, ((Map<?, ?>) analytics.get("totals")).get("totalIncome"));
+    }
+
+    @Test
+    void noTransactions() {
+        assertEquals(BaselineAnalytics.analytics(List.of()), TransactionService.buildAnalytics(List.of()));
+    }
+}
@@ -0,0 +1,120 @@
+package com.financeapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionImportServiceSplitTest {
+
+    private static final String HEADER = "Date,Description,Amount\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void coversAllRowsWithoutGaps() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 100; i++) {
+            csv.append("01/01/2024,Row ").append(i).append(",10.00\n");
+        }
+
+        List<TransactionImportService.Segment> segments = split(csv.toString(), 100);
+
+        assertTrue(segments.size() > 1);
+        long expectedStart = HEADER.length();
+        long expectedLine = 2;
+        for (TransactionImportService.Segment segment : segments) {
+            assertEquals(expectedStart, segment.start());
+            assertEquals(expectedLine, segment.firstLine());
+            assertFalse(segment.malformed());
+            expectedStart += segment.length();
+            expectedLine += segment.lineCount();
+        }
+        assertEquals(csv.length(), expectedStart);
+        assertEquals(102, expectedLine);
+    }
+
+    @Test
+    void neverSplitsInsideQuotedValue() throws IOException {
+        String csv = HEADER
+                + "01/01/2024,\"first line\nsecond line\nthird line\",10.00\n"
+                + "02/01/2024,\"say \"\"hi\"\"\",5.00\n";
+
+        List<TransactionImportService.Segment> segments = split(csv, 1);
+
+        assertEquals(2, segments.size());
+        assertEquals(3, segments.get(0).lineCount());
+        assertEquals(5, segments.get(1).firstLine());
+        assertFalse(segments.get(0).malformed());
+        assertFalse(segments.get(1).malformed());
+    }
+
+    @Test
+    void lastRowWithoutLineBreak() throws IOException {
+        String csv = HEADER + "01/01/2024,A,1.00\n02/01/2024,B,2.00";
+
+        List<TransactionImportService.Segment> segments = split(csv, 1 << 20);
+
+        assertEquals(1, segments.size());
+        assertEquals(csv.length() - HEADER.length(), segments.get(0).length());
+        assertEquals(2, segments.get(0).lineCount());
+    }
+
+    @Test
+    void lastRowWithLineBreak() throws IOException {
+        String csv = HEADER + "01/01/2024,A,1.00\n02/01/2024,B,2.00\n";
+
+        List<TransactionImportService.Segment> segments = split(csv, 1 << 20);
+
+        assertEquals(1, segments.size());
+        assertEquals(2, segments.get(0).lineCount());
+    }
+
+    @Test
+    void unclosedQuoteOnlyCostsItsRow() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        csv.append("01/01/2024,Before,1.00\n");
+        String badRow = "02/01/2024,\"Unclosed,2.00\n";
+        long badRowStart = csv.length();
+        csv.append(badRow);
+        // Far more than MAX_QUOTED_BYTES after the stray quote
+        int rowsAfter = 5000;
+        for (int i = 0; i < rowsAfter; i++) {
+            csv.append("03/01/2024,After ").append(i).append(",3.00\n");
+        }
+
+        List<TransactionImportService.Segment> segments = split(csv.toString(), 1 << 20);
+
+        List<TransactionImportService.Segment> malformed = segments.stream()
+                .filter(TransactionImportService.Segment::malformed).toList();
+        assertEquals(1, malformed.size());
+        assertEquals(badRowStart, malformed.get(0).start());
+        assertEquals(badRow.length(), malformed.get(0).length());
+        assertEquals(3, malformed.get(0).firstLine());
+        assertEquals(1, malformed.get(0).lineCount());
+
+        // Everything else is still split into normal segments covering every row
+        long rows = segments.stream().filter(segment -> !segment.malformed())
+                .mapToLong(TransactionImportService.Segment::lineCount).sum();
+        assertEquals(1 + rowsAfter, rows);
+        TransactionImportService.Segment last = segments.get(segments.size() - 1);
+        assertEquals(csv.length(), last.start() + last.length());
+    }
+
+    private List<TransactionImportService.Segment> split(String csv, long segmentBytes) throws IOException {
+        Path file = dir.resolve("import.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return TransactionImportService.split(channel, HEADER.length(), channel.size(), segmentBytes);
+        }
+    }
+}
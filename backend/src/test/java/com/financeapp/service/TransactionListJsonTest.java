@@ -0,0 +1,46 @@
+package com.financeapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.financeapp.dto.TransactionListResponse;
+import com.financeapp.dto.TransactionResponse;
+import com.financeapp.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionListJsonTest {
+
+    // Java time as ISO strings, as Spring Boot's ObjectMapper writes it
+    static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void recordsWriteTheSameBytesAsTheOldMaps() throws Exception {
+        List<Transaction> transactions = SampleTransactions.generate(500, 42);
+        transactions.get(0).setReference("REF-1");
+        transactions.get(1).setDescription(null);
+
+        String baseline = MAPPER.writeValueAsString(
+                BaselineTransactionList.response(transactions, 12345, 3, 500, 25));
+        String records = MAPPER.writeValueAsString(TransactionListResponse.of(
+                transactions.stream().map(TransactionResponse::from).toList(),
+                new TransactionListResponse.OffsetPagination(12345, 3, 500, 25)));
+
+        assertEquals(baseline, records);
+    }
+
+    @Test
+    void emptyPage() throws Exception {
+        assertEquals(
+                MAPPER.writeValueAsString(BaselineTransactionList.response(List.of(), 0, 1, 10, 0)),
+                MAPPER.writeValueAsString(TransactionListResponse.of(List.of(),
+                        new TransactionListResponse.OffsetPagination(0, 1, 10, 0))));
+    }
+}
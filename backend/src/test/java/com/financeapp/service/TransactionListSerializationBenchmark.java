@@ -0,0 +1,66 @@
+package com.financeapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.financeapp.dto.TransactionListResponse;
+import com.financeapp.dto.TransactionResponse;
+import com.financeapp.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One GET /api/user/transactions page at pageSize 500: building the old
+ * per-row HashMaps and serializing them against building the typed records
+ * and serializing those. The response is written to a discarding stream,
+ * as Spring writes it to the response's output stream.
+ *
+ * The query and the HTTP layer are the same for both and not measured.
+ * The benchmark profile runs with the gc profiler, so gc.alloc.rate.norm
+ * in the results is the allocation per response.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TransactionListSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransactionListSerializationBenchmark {
+
+    @Param({"500"})
+    public int pageSize;
+
+    // Java time as ISO strings, as Spring Boot's ObjectMapper writes it
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    private List<Transaction> page;
+
+    @Setup
+    public void setUp() {
+        page = SampleTransactions.generate(pageSize, 42);
+    }
+
+    @Benchmark
+    public void hashMaps() throws IOException {
+        mapper.writeValue(out, BaselineTransactionList.response(page, 10_000, 1, pageSize, 10_000 / pageSize));
+    }
+
+    @Benchmark
+    public void records() throws IOException {
+        mapper.writeValue(out, TransactionListResponse.of(
+                page.stream().map(TransactionResponse::from).toList(),
+                new TransactionListResponse.OffsetPagination(10_000, 1, pageSize, 10_000 / pageSize)));
+    }
+}
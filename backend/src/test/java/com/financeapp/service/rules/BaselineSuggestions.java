@@ -0,0 +1,144 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Notification;
+import com.financeapp.model.Transaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The transaction-scanning part of NotificationService.generateSuggestions
+ * from before the rule engine (savings rate, dominant category and weekend
+ * spending), kept to benchmark against. The goal and budget checks read
+ * their own repositories and are left out.
+ */
+final class BaselineSuggestions {
+
+    private BaselineSuggestions() {
+    }
+
+    static List<Map<String, Object>> generateSuggestions(List<Transaction> transactions) {
+        List<Map<String, Object>> suggestions = new ArrayList<>();
+
+        BigDecimal totalIncome = transactions.stream()
+            .filter(t -> t.getType() == Transaction.TransactionType.income)
+            .map(Transaction::getAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal totalExpense = transactions.stream()
+            .filter(t -> t.getType() == Transaction.TransactionType.expense)
+            .map(Transaction::getAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal savings = totalIncome.subtract(totalExpense);
+        double savingsRate = totalIncome.compareTo(BigDecimal.ZERO) > 0
+            ? savings.divide(totalIncome, 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100")).doubleValue()
+            : 0;
+
+        // Rule 1: Savings rate check
+        if (totalIncome.compareTo(BigDecimal.ZERO) > 0) {
+            if (savingsRate >= 20) {
+                suggestions.add(createSuggestion(
+                    String.format("Your savings rate is good! You're saving %.1f%% of your income.", savingsRate),
+                    Notification.NotificationType.success));
+            } else if (savingsRate < 10) {
+                suggestions.add(createSuggestion(
+                    String.format("Try to save at least 20%% of your income. Currently you're saving %.1f%%.", savingsRate),
+                    Notification.NotificationType.warning));
+            } else if (savingsRate < 0) {
+                suggestions.add(createSuggestion(
+                    "You're spending more than you earn. Try to reduce expenses or increase income.",
+                    Notification.NotificationType.warning));
+            }
+        }
+
+        // Rule 2: Category-wise spending analysis
+        Map<String, BigDecimal> categoryTotals = transactions.stream()
+            .filter(t -> t.getType() == Transaction.TransactionType.expense)
+            .collect(Collectors.groupingBy(
+                Transaction::getCategory,
+                Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
+
+        if (!categoryTotals.isEmpty() && totalExpense.compareTo(BigDecimal.ZERO) > 0) {
+            String highestCategory = categoryTotals.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+
+            if (highestCategory != null) {
+                BigDecimal categoryAmount = categoryTotals.get(highestCategory);
+                double categoryPercentage = categoryAmount.divide(totalExpense, 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100")).doubleValue();
+
+                List<String> commonCategories = Arrays.asList("Food", "Entertainment", "Shopping", "Transportation");
+
+                if (categoryPercentage > 40 && commonCategories.contains(highestCategory)) {
+                    suggestions.add(createSuggestion(
+                        String.format("You are spending too much on %s. Consider reducing expenses in this category.", highestCategory),
+                        Notification.NotificationType.warning));
+                } else if (categoryPercentage > 30 && totalExpense.compareTo(new BigDecimal("10000")) > 0) {
+                    suggestions.add(createSuggestion(
+                        String.format("Your spending on %s is high (%.1f%% of total expenses).", highestCategory, categoryPercentage),
+                        Notification.NotificationType.tip));
+                }
+            }
+        }
+
+        // Rule 3: Weekend spending analysis
+        List<Transaction> expenseTransactions = transactions.stream()
+            .filter(t -> t.getType() == Transaction.TransactionType.expense)
+            .toList();
+
+        long weekendCount = expenseTransactions.stream()
+            .filter(t -> {
+                DayOfWeek dayOfWeek = t.getTransactionDate().getDayOfWeek();
+                return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+            })
+            .count();
+
+        long weekdayCount = expenseTransactions.size() - weekendCount;
+
+        if (weekendCount > 0 && weekdayCount > 0) {
+            BigDecimal weekendTotal = expenseTransactions.stream()
+                .filter(t -> {
+                    DayOfWeek dayOfWeek = t.getTransactionDate().getDayOfWeek();
+                    return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+                })
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            BigDecimal weekdayTotal = totalExpense.subtract(weekendTotal);
+
+            BigDecimal weekendAvg = weekendTotal.divide(new BigDecimal(weekendCount), 2, RoundingMode.HALF_UP);
+            BigDecimal weekdayAvg = weekdayTotal.divide(new BigDecimal(weekdayCount), 2, RoundingMode.HALF_UP);
+
+            if (weekdayAvg.compareTo(BigDecimal.ZERO) > 0) {
+                BigDecimal ratio = weekendAvg.divide(weekdayAvg, 2, RoundingMode.HALF_UP);
+                BigDecimal thirtyPercent = totalExpense.multiply(new BigDecimal("0.3"));
+
+                if (ratio.compareTo(new BigDecimal("1.5")) > 0 && weekendTotal.compareTo(thirtyPercent) > 0) {
+                    suggestions.add(createSuggestion(
+                        "Reduce weekend spending. Your weekend expenses are significantly higher than weekdays.",
+                        Notification.NotificationType.tip));
+                }
+            }
+        }
+
+        return suggestions;
+    }
+
+    private static Map<String, Object> createSuggestion(String message, Notification.NotificationType type) {
+        Map<String, Object> suggestion = new HashMap<>();
+        suggestion.put("message", message);
+        suggestion.put("type", type);
+        return suggestion;
+    }
+}
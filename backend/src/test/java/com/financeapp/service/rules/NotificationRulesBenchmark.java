@@ -0,0 +1,106 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The savings rate, dominant category and weekend spending checks for one
+ * user's last 30 days: the old generateSuggestions scanning the period's
+ * transactions six times against the rule engine's single pass over the
+ * period's daily rollup rows.
+ *
+ * Loading the rows is not measured; the old method loaded every
+ * transaction of the period as an entity, the engine loads at most one
+ * rollup row per day, type and category.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=NotificationRulesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NotificationRulesBenchmark {
+
+    private static final Integer USER_ID = 1;
+
+    private static final LocalDate TO_DATE = LocalDate.of(2024, 1, 31);
+
+    private static final String[] CATEGORIES = {"Food", "Rent", "Transportation", "Entertainment",
+            "Shopping", "Utilities", "Health", "Other"};
+
+    // Transactions in the 30 days
+    @Param({"100", "1000", "10000"})
+    public int transactions;
+
+    private List<Transaction> periodTransactions;
+
+    private List<TransactionDailyRollup> periodRollups;
+
+    private final List<NotificationRule> rules = List.of(new SavingsRateRule(), new DominantCategoryRule(),
+            new WeekendSpendingRule());
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        periodTransactions = new ArrayList<>(transactions);
+        for (int i = 0; i < transactions; i++) {
+            boolean income = random.nextInt(10) == 0;
+            Transaction transaction = new Transaction();
+            transaction.setUserId(USER_ID);
+            transaction.setType(income ? Transaction.TransactionType.income : Transaction.TransactionType.expense);
+            transaction.setCategory(income ? "Salary" : CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            transaction.setAmount(BigDecimal.valueOf(1 + random.nextInt(income ? 500_000 : 50_000), 2));
+            transaction.setTransactionDate(TO_DATE.minusDays(random.nextInt(30)));
+            periodTransactions.add(transaction);
+        }
+
+        // What the rollup table holds for these transactions
+        Map<List<Object>, TransactionDailyRollup> rollups = new LinkedHashMap<>();
+        for (Transaction transaction : periodTransactions) {
+            TransactionDailyRollup rollup = rollups.computeIfAbsent(
+                    List.of(transaction.getTransactionDate(), transaction.getType(), transaction.getCategory()),
+                    key -> new TransactionDailyRollup(USER_ID, transaction.getTransactionDate(),
+                            transaction.getType(), transaction.getCategory(), BigDecimal.ZERO, 0));
+            rollup.setTotalAmount(rollup.getTotalAmount().add(transaction.getAmount()));
+            rollup.setTxnCount(rollup.getTxnCount() + 1);
+        }
+        periodRollups = new ArrayList<>(rollups.values());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> generateSuggestions() {
+        return BaselineSuggestions.generateSuggestions(periodTransactions);
+    }
+
+    @Benchmark
+    public List<Suggestion> ruleEngine() {
+        // Same steps as NotificationRuleEngine.evaluate, without the repository read
+        RuleContext context = new RuleContext(USER_ID, TO_DATE.minusDays(30), TO_DATE);
+        for (NotificationRule rule : rules) {
+            rule.register(context);
+        }
+        RollupAccumulator[] accumulators = context.getAccumulators().toArray(new RollupAccumulator[0]);
+        for (TransactionDailyRollup rollup : periodRollups) {
+            for (RollupAccumulator accumulator : accumulators) {
+                accumulator.accept(rollup);
+            }
+        }
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (NotificationRule rule : rules) {
+            rule.evaluate(context, suggestions);
+        }
+        return suggestions;
+    }
+}
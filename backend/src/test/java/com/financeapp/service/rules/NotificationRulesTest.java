@@ -0,0 +1,187 @@
+package com.financeapp.service.rules;
+
+import com.financeapp.model.Budget;
+import com.financeapp.model.Goal;
+import com.financeapp.model.Notification;
+import com.financeapp.model.Transaction;
+import com.financeapp.model.TransactionDailyRollup;
+import com.financeapp.repository.BudgetRepository;
+import com.financeapp.repository.GoalRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * The rules must produce the same messages as the per-transaction checks
+ * they replaced in NotificationService.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationRulesTest {
+
+    private static final Integer USER_ID = 1;
+
+    // Monday and Saturday
+    private static final LocalDate WEEKDAY = LocalDate.of(2024, 1, 1);
+    private static final LocalDate WEEKEND = LocalDate.of(2024, 1, 6);
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private GoalRepository goalRepository;
+
+    @InjectMocks
+    private BudgetExcessRule budgetExcessRule;
+
+    @InjectMocks
+    private GoalProgressRule goalProgressRule;
+
+    @Test
+    void praisesGoodSavingsRate() {
+        List<Suggestion> suggestions = evaluate(List.of(new SavingsRateRule()),
+                income("1000.00"), expense(WEEKDAY, "Food", "700.00", 3));
+
+        assertEquals(List.of(new Suggestion("Your savings rate is good! You're saving 30.0% of your income.",
+                Notification.NotificationType.success)), suggestions);
+    }
+
+    @Test
+    void saysNothingAboutAverageSavingsRate() {
+        assertTrue(evaluate(List.of(new SavingsRateRule()),
+                income("1000.00"), expense(WEEKDAY, "Food", "850.00", 1)).isEmpty());
+    }
+
+    @Test
+    void warnsAboutLowAndNegativeSavingsRate() {
+        // Like before, a negative rate gets the low-rate message
+        List<Suggestion> suggestions = evaluate(List.of(new SavingsRateRule()),
+                income("1000.00"), expense(WEEKDAY, "Food", "1500.00", 1));
+
+        assertEquals(List.of(new Suggestion("Try to save at least 20% of your income. Currently you're saving -50.0%.",
+                Notification.NotificationType.warning)), suggestions);
+    }
+
+    @Test
+    void needsIncomeForSavingsRate() {
+        assertTrue(evaluate(List.of(new SavingsRateRule()), expense(WEEKDAY, "Food", "10.00", 1)).isEmpty());
+    }
+
+    @Test
+    void warnsAboutDominantCommonCategory() {
+        List<Suggestion> suggestions = evaluate(List.of(new DominantCategoryRule()),
+                expense(WEEKDAY, "Food", "300.00", 2), expense(WEEKEND, "Food", "200.00", 1),
+                expense(WEEKDAY, "Rent", "300.00", 1));
+
+        assertEquals(List.of(new Suggestion(
+                "You are spending too much on Food. Consider reducing expenses in this category.",
+                Notification.NotificationType.warning)), suggestions);
+    }
+
+    @Test
+    void pointsOutLargeCategoryOfLargeSpending() {
+        List<Suggestion> suggestions = evaluate(List.of(new DominantCategoryRule()),
+                expense(WEEKDAY, "Rent", "7000.00", 1), expense(WEEKDAY, "Utilities", "5000.00", 1));
+
+        assertEquals(List.of(new Suggestion("Your spending on Rent is high (58.3% of total expenses).",
+                Notification.NotificationType.tip)), suggestions);
+    }
+
+    @Test
+    void suggestsCuttingWeekendSpending() {
+        List<Suggestion> suggestions = evaluate(List.of(new WeekendSpendingRule()),
+                expense(WEEKDAY, "Food", "100.00", 4), expense(WEEKEND, "Entertainment", "400.00", 2));
+
+        assertEquals(List.of(new Suggestion(
+                "Reduce weekend spending. Your weekend expenses are significantly higher than weekdays.",
+                Notification.NotificationType.tip)), suggestions);
+    }
+
+    @Test
+    void needsWeekdayAndWeekendSpending() {
+        assertTrue(evaluate(List.of(new WeekendSpendingRule()),
+                expense(WEEKEND, "Entertainment", "400.00", 2)).isEmpty());
+    }
+
+    @Test
+    void warnsAboutBudgetsExceededByMoreThanTenPercent() {
+        when(budgetRepository.findByUserIdOrderByCategoryAsc(USER_ID)).thenReturn(List.of(
+                budget("Food", "400.00"), budget("Rent", "1000.00")));
+
+        List<Suggestion> suggestions = evaluate(List.of(budgetExcessRule),
+                expense(WEEKDAY, "Food", "500.00", 5), expense(WEEKDAY, "Rent", "1050.00", 1));
+
+        assertEquals(List.of(new Suggestion("You've exceeded your budget for Food by 25.0%.",
+                Notification.NotificationType.warning)), suggestions);
+    }
+
+    @Test
+    void nudgesGoodSaversWithUnderfundedGoals() {
+        Goal goal = new Goal();
+        goal.setTargetAmount(new BigDecimal("1000.00"));
+        goal.setSavedAmount(new BigDecimal("100.00"));
+        when(goalRepository.findByUserIdAndStatus(USER_ID, Goal.GoalStatus.active)).thenReturn(List.of(goal));
+
+        List<Suggestion> suggestions = evaluate(List.of(goalProgressRule),
+                income("1000.00"), expense(WEEKDAY, "Food", "500.00", 1));
+
+        assertEquals(List.of(new Suggestion("You have active goals. Consider allocating more savings towards them.",
+                Notification.NotificationType.info)), suggestions);
+    }
+
+    @Test
+    void rulesShareAccumulatorsAndKeepTheirOrder() {
+        List<NotificationRule> rules = List.of(new SavingsRateRule(), new DominantCategoryRule(),
+                new WeekendSpendingRule());
+        RuleContext context = new RuleContext(USER_ID, WEEKDAY, WEEKEND);
+        rules.forEach(rule -> rule.register(context));
+
+        // TotalsAccumulator is registered by all three rules, but exists once
+        assertEquals(3, context.getAccumulators().size());
+
+        List<Suggestion> suggestions = evaluate(rules,
+                income("1000.00"), expense(WEEKDAY, "Food", "100.00", 4),
+                expense(WEEKEND, "Food", "400.00", 2));
+        assertEquals(List.of(Notification.NotificationType.success, Notification.NotificationType.warning,
+                Notification.NotificationType.tip), suggestions.stream().map(Suggestion::type).toList());
+    }
+
+    // Same steps as NotificationRuleEngine.evaluate, without the repository read
+    private static List<Suggestion> evaluate(List<NotificationRule> rules, TransactionDailyRollup... rows) {
+        RuleContext context = new RuleContext(USER_ID, WEEKDAY.minusDays(30), WEEKDAY);
+        rules.forEach(rule -> rule.register(context));
+        for (TransactionDailyRollup row : rows) {
+            context.getAccumulators().forEach(accumulator -> accumulator.accept(row));
+        }
+        List<Suggestion> suggestions = new ArrayList<>();
+        rules.forEach(rule -> rule.evaluate(context, suggestions));
+        return suggestions;
+    }
+
+    private static TransactionDailyRollup income(String amount) {
+        return new TransactionDailyRollup(USER_ID, WEEKDAY, Transaction.TransactionType.income, "Salary",
+                new BigDecimal(amount), 1);
+    }
+
+    private static TransactionDailyRollup expense(LocalDate day, String category, String amount, int count) {
+        return new TransactionDailyRollup(USER_ID, day, Transaction.TransactionType.expense, category,
+                new BigDecimal(amount), count);
+    }
+
+    private static Budget budget(String category, String amount) {
+        Budget budget = new Budget();
+        budget.setUserId(USER_ID);
+        budget.setCategory(category);
+        budget.setAmount(new BigDecimal(amount));
+        return budget;
+    }
+}
@@ -0,0 +1,40 @@
+package com.financeapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmountUtilTest {
+
+    @Test
+    void keepsTheAmountAsSent() {
+        assertEquals(new BigDecimal("12.5"), AmountUtil.parse("12.5"));
+        assertEquals(new BigDecimal("12.50"), AmountUtil.parse(" 12.500 "));
+        assertEquals(new BigDecimal("7.25"), AmountUtil.parse(7.25));
+        assertEquals(new BigDecimal("9999999999.99"), AmountUtil.parse("9999999999.99"));
+    }
+
+    @Test
+    void rejectsFractionsOfCents() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> AmountUtil.parse("10.005"));
+        assertEquals("Amount can have at most 2 decimal places", e.getMessage());
+        assertThrows(RuntimeException.class, () -> AmountUtil.check(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void rejectsZeroNegativeAndTooLarge() {
+        assertEquals("Amount must be greater than 0",
+                assertThrows(RuntimeException.class, () -> AmountUtil.parse("0")).getMessage());
+        assertThrows(RuntimeException.class, () -> AmountUtil.parse("-5"));
+        assertEquals("Amount is too large",
+                assertThrows(RuntimeException.class, () -> AmountUtil.parse("10000000000")).getMessage());
+    }
+
+    @Test
+    void rejectsText() {
+        assertEquals("Invalid amount: abc",
+                assertThrows(RuntimeException.class, () -> AmountUtil.parse("abc")).getMessage());
+    }
+}
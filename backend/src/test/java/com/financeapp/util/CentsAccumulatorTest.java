@@ -0,0 +1,94 @@
+package com.financeapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentsAccumulatorTest {
+
+    @Test
+    void sumsLikeBigDecimal() {
+        String[] amounts = {"10.55", "0.01", "-3.20", "1999.99", "7", "0.10"};
+        CentsAccumulator total = CentsAccumulator.zero();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (String amount : amounts) {
+            total.plus(new BigDecimal(amount));
+            expected = expected.add(new BigDecimal(amount));
+        }
+
+        assertEquals(0, expected.compareTo(total.toBigDecimal()));
+        assertEquals(201445, total.cents());
+    }
+
+    @Test
+    void returnsTwoDecimals() {
+        assertEquals(new BigDecimal("7.00"), CentsAccumulator.of(new BigDecimal("7")).toBigDecimal());
+        assertEquals(new BigDecimal("0.07"), CentsAccumulator.toBigDecimal(7));
+        assertEquals("0.50", CentsAccumulator.ofCents(50).toString());
+        assertEquals("-0.05", CentsAccumulator.ofCents(-5).toString());
+    }
+
+    @Test
+    void acceptsTrailingZeros() {
+        assertEquals(1050, CentsAccumulator.toCents(new BigDecimal("10.5000")));
+    }
+
+    @Test
+    void rejectsFractionsOfCents() {
+        assertThrows(ArithmeticException.class, () -> CentsAccumulator.toCents(new BigDecimal("10.555")));
+    }
+
+    @Test
+    void rejectsOverflow() {
+        CentsAccumulator total = CentsAccumulator.ofCents(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> total.plusCents(1));
+        assertThrows(ArithmeticException.class,
+                () -> CentsAccumulator.ofCents(Long.MIN_VALUE).minus(CentsAccumulator.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> CentsAccumulator.toCents(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void plusAndMinusUpdateInPlace() {
+        CentsAccumulator total = CentsAccumulator.ofCents(100);
+        CentsAccumulator other = CentsAccumulator.ofCents(30);
+
+        assertSame(total, total.plus(other));
+        assertEquals(130, total.cents());
+
+        assertSame(total, total.minus(new BigDecimal("0.50")));
+        assertEquals(80, total.cents());
+        assertEquals(30, other.cents());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        CentsAccumulator total = CentsAccumulator.ofCents(100);
+
+        CentsAccumulator difference = total.copy().minusCents(40);
+
+        assertEquals(60, difference.cents());
+        assertEquals(100, total.cents());
+    }
+
+    @Test
+    void comparesByAmount() {
+        assertTrue(CentsAccumulator.ofCents(5).compareTo(CentsAccumulator.ofCents(10)) < 0);
+        assertEquals(0, CentsAccumulator.of(new BigDecimal("1.5")).compareTo(CentsAccumulator.ofCents(150)));
+        assertEquals(-1, CentsAccumulator.ofCents(-1).signum());
+        assertTrue(CentsAccumulator.zero().isZero());
+    }
+
+    @Test
+    void equalsMatchesCompareTo() {
+        CentsAccumulator a = CentsAccumulator.of(new BigDecimal("1.50"));
+        CentsAccumulator b = CentsAccumulator.ofCents(150);
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertFalse(a.equals(CentsAccumulator.ofCents(151)));
+        assertFalse(a.equals(new BigDecimal("1.50")));
+    }
+}
@@ -0,0 +1,117 @@
+package com.financeapp.util;
+
+import com.financeapp.dto.StatementEntry;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfxStatementReaderTest {
+
+    @Test
+    void readsSgmlWithoutClosingTags() throws IOException {
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240115120000[-5:EST]
+                <TRNAMT>-42.50
+                <FITID>2024011501
+                <NAME>GROCERY MART
+                <MEMO>Card purchase
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CHECK
+                <DTPOSTED>20240116
+                <TRNAMT>-100.00
+                <FITID>2024011602
+                <CHECKNUM>1042
+                <NAME>Landlord &amp; Co
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """;
+        OfxStatementReader reader = reader(ofx);
+
+        StatementEntry first = reader.next();
+        assertEquals(LocalDate.of(2024, 1, 15), first.date());
+        assertEquals(new BigDecimal("-42.50"), first.amount());
+        assertNull(first.category());
+        assertEquals("GROCERY MART - Card purchase", first.description());
+        assertEquals("2024011501", first.reference());
+        assertEquals(6, reader.getRecordLine());
+
+        StatementEntry second = reader.next();
+        assertEquals(new BigDecimal("-100.00"), second.amount());
+        assertEquals("Landlord & Co", second.description());
+        assertEquals("1042", second.reference());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void readsXml() throws IOException {
+        String ofx = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <OFX><CREDITCARDMSGSRSV1><CCSTMTTRNRS><CCSTMTRS><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>CREDIT</TRNTYPE><DTPOSTED>20231231</DTPOSTED>
+                <TRNAMT>+1250.00</TRNAMT><FITID>X1</FITID><NAME>Salary</NAME><MEMO>salary</MEMO></STMTTRN>
+                </BANKTRANLIST></CCSTMTRS></CCSTMTTRNRS></CREDITCARDMSGSRSV1></OFX>
+                """;
+        OfxStatementReader reader = reader(ofx);
+
+        StatementEntry entry = reader.next();
+        assertEquals(LocalDate.of(2023, 12, 31), entry.date());
+        assertEquals(new BigDecimal("1250.00"), entry.amount());
+        // A memo that repeats the payee is dropped
+        assertEquals("Salary", entry.description());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void acceptsDecimalComma() throws IOException {
+        OfxStatementReader reader = reader("<STMTTRN><DTPOSTED>20240101<TRNAMT>-12,34<NAME>Cafe</STMTTRN>");
+
+        assertEquals(new BigDecimal("-12.34"), reader.next().amount());
+    }
+
+    @Test
+    void skipsInvalidTransactionAndContinues() throws IOException {
+        OfxStatementReader reader = reader("""
+                <STMTTRN><DTPOSTED>20240101<NAME>No amount</STMTTRN>
+                <STMTTRN><DTPOSTED>2024XX01<TRNAMT>1.00</STMTTRN>
+                <STMTTRN><DTPOSTED>20240103<TRNAMT>3.00</STMTTRN>
+                """);
+
+        RuntimeException missing = assertThrows(RuntimeException.class, reader::next);
+        assertEquals("Transaction has no DTPOSTED or TRNAMT", missing.getMessage());
+        assertEquals(1, reader.getRecordLine());
+
+        RuntimeException date = assertThrows(RuntimeException.class, reader::next);
+        assertEquals("Invalid date: 2024XX01", date.getMessage());
+        assertEquals(2, reader.getRecordLine());
+
+        assertEquals(LocalDate.of(2024, 1, 3), reader.next().date());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        OfxStatementReader reader = reader("<STMTTRN><DTPOSTED>20240101<TRNAMT>1.00");
+
+        assertThrows(RuntimeException.class, reader::next);
+    }
+
+    private static OfxStatementReader reader(String ofx) {
+        return new OfxStatementReader(new BufferedReader(new StringReader(ofx)));
+    }
+}
@@ -0,0 +1,126 @@
+package com.financeapp.util;
+
+import com.financeapp.dto.StatementEntry;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QifStatementReaderTest {
+
+    @Test
+    void readsBankRecords() throws IOException {
+        QifStatementReader reader = reader("""
+                !Type:Bank
+                D01/15/2024
+                T-1,234.56
+                PRent
+                MJanuary
+                LHousing:Rent
+                N101
+                ^
+                D1/16'24
+                T500.00
+                PPaycheck
+                L[Savings]
+                ^
+                """);
+
+        StatementEntry rent = reader.next();
+        assertEquals(LocalDate.of(2024, 1, 15), rent.date());
+        assertEquals(new BigDecimal("-1234.56"), rent.amount());
+        assertEquals("Housing", rent.category());
+        assertEquals("Rent - January", rent.description());
+        assertEquals("101", rent.reference());
+        assertEquals(2, reader.getRecordLine());
+
+        StatementEntry pay = reader.next();
+        assertEquals(LocalDate.of(2024, 1, 16), pay.date());
+        // Transfers have no category
+        assertNull(pay.category());
+        assertEquals(9, reader.getRecordLine());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void skipsNonAccountSections() throws IOException {
+        QifStatementReader reader = reader("""
+                !Account
+                NChecking
+                TBank
+                ^
+                !Type:Cat
+                NFood
+                ^
+                !Type:Invst
+                D01/01/2024
+                T99.00
+                ^
+                !Type:CCard
+                D2024-02-03
+                T-9.99
+                PStreaming
+                ^
+                """);
+
+        StatementEntry entry = reader.next();
+        assertEquals(LocalDate.of(2024, 2, 3), entry.date());
+        assertEquals("Streaming", entry.description());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void readsLastRecordWithoutCaret() throws IOException {
+        QifStatementReader reader = reader("D03/01/2024\nT12.00\nPNo header");
+
+        assertEquals(new BigDecimal("12.00"), reader.next().amount());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void skipsInvalidRecordAndContinues() throws IOException {
+        QifStatementReader reader = reader("""
+                !Type:Bank
+                PNo date
+                T1.00
+                ^
+                D02/30/2024
+                T1.00
+                ^
+                D03/01/2024
+                Tabc
+                ^
+                D03/02/2024
+                T2.00
+                ^
+                """);
+
+        assertEquals("Transaction has no date (D) or amount (T)",
+                assertThrows(RuntimeException.class, reader::next).getMessage());
+        assertEquals("Invalid date: 02/30/2024", assertThrows(RuntimeException.class, reader::next).getMessage());
+        assertEquals("Invalid amount: abc", assertThrows(RuntimeException.class, reader::next).getMessage());
+        assertEquals(LocalDate.of(2024, 3, 2), reader.next().date());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void parsesDateFormats() {
+        assertEquals(LocalDate.of(2024, 12, 25), QifStatementReader.parseDate("2024-12-25"));
+        assertEquals(LocalDate.of(2024, 12, 25), QifStatementReader.parseDate("12/25/2024"));
+        assertEquals(LocalDate.of(2024, 12, 25), QifStatementReader.parseDate("25/12/2024"));
+        assertEquals(LocalDate.of(2024, 1, 5), QifStatementReader.parseDate("1/5'24"));
+        assertEquals(LocalDate.of(2024, 1, 5), QifStatementReader.parseDate(" 1/ 5/24"));
+        assertEquals(LocalDate.of(1999, 1, 5), QifStatementReader.parseDate("1.5.99"));
+        assertThrows(RuntimeException.class, () -> QifStatementReader.parseDate("yesterday"));
+    }
+
+    private static QifStatementReader reader(String qif) {
+        return new QifStatementReader(new BufferedReader(new StringReader(qif)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.financeapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        TransactionCursor cursor = new TransactionCursor(
+                LocalDate.of(2024, 3, 15), LocalDateTime.of(2024, 3, 15, 9, 30, 12, 123456000), 42);
+
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void keepsWholeSecondsAndMidnight() {
+        // LocalDateTime.toString() leaves out zero seconds, which parse() has to accept
+        TransactionCursor cursor = new TransactionCursor(
+                LocalDate.of(2024, 1, 1), LocalDateTime.of(2024, 1, 1, 0, 0), 1);
+
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void isUrlSafe() {
+        TransactionCursor cursor = new TransactionCursor(
+                LocalDate.of(2024, 12, 31), LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999999000), Integer.MAX_VALUE);
+
+        assertTrue(cursor.encode().matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void rejectsGarbage() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> TransactionCursor.decode("not a cursor!"));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    @Test
+    void rejectsIncompleteCursor() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2024-01-01|2024-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(RuntimeException.class, () -> TransactionCursor.decode(cursor));
+    }
+}
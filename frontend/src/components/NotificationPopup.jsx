@@ -15,6 +15,53 @@ const NotificationPopup = ({ isOpen, onClose }) => {
     }
   }, [isOpen, usertoken]);
 
+  // Receive new notifications while the popup is open instead of re-polling
+  useEffect(() => {
+    if (!isOpen || !usertoken) return;
+
+    // EventSource can't send the token header, so each connection uses a
+    // single-use ticket; a dropped stream is reopened with a new one
+    let stream = null;
+    let retryTimer = null;
+    let lastEventId = null;
+    let closed = false;
+
+    const connect = async () => {
+      try {
+        const { data } = await axios.post(
+          `${backend}/api/user/notifications/stream-ticket`,
+          {},
+          { headers: { usertoken } }
+        );
+        if (closed || !data.success) return;
+        const after = lastEventId ? `&lastEventId=${encodeURIComponent(lastEventId)}` : '';
+        stream = new EventSource(
+          `${backend}/api/user/notifications/stream?ticket=${encodeURIComponent(data.ticket)}${after}`
+        );
+        stream.addEventListener('notification', (event) => {
+          lastEventId = event.lastEventId || lastEventId;
+          const notification = JSON.parse(event.data);
+          setNotifications((prev) =>
+            prev.some((n) => n.id === notification.id) ? prev : [notification, ...prev]
+          );
+        });
+        stream.onerror = () => {
+          stream.close();
+          if (!closed) retryTimer = setTimeout(connect, 3000);
+        };
+      } catch (error) {
+        if (!closed) retryTimer = setTimeout(connect, 3000);
+      }
+    };
+    connect();
+
+    return () => {
+      closed = true;
+      clearTimeout(retryTimer);
+      if (stream) stream.close();
+    };
+  }, [isOpen, usertoken, backend]);
+
   // Close popup when clicking outside
   useEffect(() => {
     const handleClickOutside = (event) => {
@@ -1,36 +1,51 @@
 import React, { useContext, useEffect, useMemo, useState } from "react";
+import axios from "axios";
 import { AppContext } from "../context/AppContext";
 
 const SpendingOverview = () => {
-  const {
-    usertoken,
-    transactions,
-    transactionsLoading,
-    loadTransactions,
-  } = useContext(AppContext);
+  const { backend, usertoken } = useContext(AppContext);
 
   const [range, setRange] = useState("7");
+  const [series, setSeries] = useState([]);
+  const [loading, setLoading] = useState(false);
 
-  // Load transactions
+  // Load expense totals per category, bucketed on the server
   useEffect(() => {
-    if (usertoken) {
-      loadTransactions({ frequency: range, page: 1, pageSize: 200 });
-    }
+    const loadSeries = async () => {
+      if (!usertoken) return;
+      try {
+        setLoading(true);
+        const { data } = await axios.get(`${backend}/api/user/transactions/timeseries`, {
+          headers: { usertoken },
+          params: { frequency: range, type: "expense", interval: "month", byCategory: true },
+        });
+        if (data.success) {
+          setSeries(data.data?.series || []);
+        }
+      } catch (error) {
+        console.log(error);
+      } finally {
+        setLoading(false);
+      }
+    };
+    loadSeries();
   }, [usertoken, range]);
 
-  // Compute only expense category stats
+  // Combine the buckets into expense category stats
   const { totalExpense, categories } = useMemo(() => {
     let expense = 0;
     const categoryMap = {};
 
-    transactions.forEach((t) => {
-      if (t.type !== "expense") return;
+    series.forEach((bucket) => {
+      (bucket.categories || []).forEach((c) => {
+        if (c.type !== "expense") return;
 
-      const amt = Number(t.amount) || 0;
-      expense += amt;
+        const amt = Number(c.totalAmount) || 0;
+        expense += amt;
 
-      const key = t.category || "Uncategorized";
-      categoryMap[key] = (categoryMap[key] || 0) + amt;
+        const key = c.category || "Uncategorized";
+        categoryMap[key] = (categoryMap[key] || 0) + amt;
+      });
     });
 
     const list = Object.entries(categoryMap)
@@ -42,7 +57,7 @@ const SpendingOverview = () => {
       }));
 
     return { totalExpense: expense, categories: list };
-  }, [transactions]);
+  }, [series]);
 
   const formatCurrency = (v) => `₹${(Number(v) || 0).toFixed(2)}`;
 
@@ -74,7 +89,7 @@ const SpendingOverview = () => {
       </div>
 
       {/* Loading */}
-      {transactionsLoading ? (
+      {loading ? (
         <div className="flex items-center justify-center py-12 text-gray-400">
           Loading...
         </div>
@@ -25,24 +25,15 @@ const Home = () => {
     try {
       setLoading(true);
       
-      // Fetch analytics for last 30 days
-      const analyticsRes = await axios.get(`${backend}/api/user/transactions/analytics`, {
+      // Fetch analytics (last 30 days) and recent transactions in one request
+      const { data } = await axios.get(`${backend}/api/user/dashboard`, {
         headers: { usertoken },
         params: { frequency: '30' },
       });
 
-      if (analyticsRes.data.success) {
-        setAnalytics(analyticsRes.data.data);
-      }
-
-      // Fetch recent transactions
-      const transactionsRes = await axios.get(`${backend}/api/user/transactions`, {
-        headers: { usertoken },
-        params: { page: 1, pageSize: 5, frequency: 'all' },
-      });
-
-      if (transactionsRes.data.success) {
-        setRecentTransactions(transactionsRes.data.transactions || []);
+      if (data.success) {
+        setAnalytics(data.data.analytics);
+        setRecentTransactions(data.data.recentTransactions || []);
       }
     } catch (error) {
       console.error('Dashboard error:', error);